@@ -0,0 +1,114 @@
+package com.mcp.spring_boot.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.spring_boot.params.FacilityCheckParams;
+import com.mcp.spring_boot.service.helper.FacilityBenchmarkData;
+import com.mcp.spring_boot.service.helper.HotelFacilityDataLoader;
+import com.mcp.spring_boot.service.helper.HotelSearchServiceMethods;
+import com.mcp.spring_boot.service.helper.SearchPaginator;
+import com.mcp.spring_boot.service.helper.SearchResponseCache;
+import com.mcp.spring_boot.service.helper.SearchResultEnricher;
+import com.mcp.spring_boot.service.helper.SearchResultMerger;
+import com.mcp.spring_boot.service.helper.SearchResultProjector;
+import com.mcp.spring_boot.service.helper.UpstreamResilience;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * The hotel_facility_check tool end to end: lookup plus response text, for known and mistyped codes.
+ * The service is wired as in the application, with mocks only for the collaborators that talk to the
+ * hotel API, which this tool never calls.
+ *
+ * <p>The {@code hotels} codes cycle (16384 covers the whole bundled dataset). While they fit
+ * the listing cache, known hotels measure the steady state with their listing already rendered.
+ * {@code knownHotelRenderedPerCall} is the per-call String.format rendering the listing cache
+ * replaced, kept as the baseline for {@code knownHotel}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FacilityCheckBenchmark {
+
+    @Param({"1024", "16384"})
+    private int hotels;
+
+    private HotelFacilityDataLoader loader;
+    private HotelSearchService service;
+    private FacilityCheckParams[] known;
+    private FacilityCheckParams[] mistyped;
+    private int next;
+
+    @Setup
+    public void load() throws Exception {
+        loader = FacilityBenchmarkData.loader("");
+        loader.loadData();
+        ObjectMapper objectMapper = new ObjectMapper();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service = new HotelSearchService(mock(WebClient.class), mock(HotelSearchServiceMethods.class), loader,
+                mock(SearchResponseCache.class), new SearchResultEnricher(objectMapper, loader),
+                new SearchPaginator(objectMapper, 10, 4, 10), new SearchResultMerger(objectMapper),
+                new SearchResultProjector(objectMapper, registry, List.of("hotelCode", "hotelName"),
+                        List.of("totalPrice"), List.of("boardType")),
+                mock(UpstreamResilience.class), Duration.ofSeconds(20), 4);
+
+        List<String> codes = FacilityBenchmarkData.hotelCodes(hotels);
+        known = new FacilityCheckParams[codes.size()];
+        mistyped = new FacilityCheckParams[codes.size()];
+        for (int i = 0; i < codes.size(); i++) {
+            known[i] = params(codes.get(i));
+            mistyped[i] = params(FacilityBenchmarkData.typo(codes.get(i)));
+        }
+    }
+
+    private static FacilityCheckParams params(String code) {
+        FacilityCheckParams p = new FacilityCheckParams();
+        p.setHotelCode(code);
+        return p;
+    }
+
+    private int nextIndex() {
+        return next = next + 1 == known.length ? 0 : next + 1;
+    }
+
+    @Benchmark
+    public String knownHotel() {
+        return service.hotelFacilityCheck(known[nextIndex()]);
+    }
+
+    @Benchmark
+    public String knownHotelRenderedPerCall() {
+        String hotelCode = known[nextIndex()].getHotelCode();
+        List<String> facilities = loader.getFacilityNamesForHotel(hotelCode);
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Facilities for hotelCode %s:\n", hotelCode));
+        for (String name : facilities) {
+            sb.append("- ").append(name).append("\n");
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public String mistypedHotelWithSuggestions() {
+        return service.hotelFacilityCheck(mistyped[nextIndex()]);
+    }
+}
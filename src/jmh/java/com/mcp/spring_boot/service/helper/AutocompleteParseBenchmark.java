@@ -0,0 +1,71 @@
+package com.mcp.spring_boot.service.helper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First-CITY extraction from autocomplete responses (src/jmh/resources/autocomplete):
+ * the streaming {@link AutocompleteParser} against binding to a {@code Map} graph,
+ * which is what the helper did before. Run with {@code -prof gc} for allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AutocompleteParseBenchmark {
+
+    @Param({"city-first-10", "city-late-30", "no-city-10"})
+    public String payload;
+
+    private byte[] json;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AutocompleteParser parser = new AutocompleteParser(new JsonFactory());
+
+    @Setup
+    public void read() throws Exception {
+        try (InputStream is = Objects.requireNonNull(
+                getClass().getResourceAsStream("/autocomplete/" + payload + ".json"), payload)) {
+            json = is.readAllBytes();
+        }
+    }
+
+    @Benchmark
+    public Optional<Integer> streaming() {
+        return parser.firstCityId(json);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Optional<Integer> mapBinding() throws Exception {
+        Map<String, Object> response = mapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+        return ((List<Map<String, Object>>) response.get("items")).stream()
+                .flatMap(item -> {
+                    List<Map<String, Object>> locations = (List<Map<String, Object>>) item.get("locations");
+                    return locations == null ? java.util.stream.Stream.empty() : locations.stream();
+                })
+                .filter(loc -> "CITY".equals(loc.get("locationType")))
+                .map(loc -> Integer.valueOf(loc.get("id").toString()))
+                .findFirst();
+    }
+}
@@ -0,0 +1,54 @@
+package com.mcp.spring_boot.service.helper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/** The bundled facility spreadsheets plus sample keys read from them, shared by the benchmarks. */
+public final class FacilityBenchmarkData {
+
+    public static final Resource HOTELS = new ClassPathResource("hotels_with_facilities.xlsx");
+    public static final Resource FACILITIES = new ClassPathResource("facilities.xlsx");
+
+    private FacilityBenchmarkData() {
+    }
+
+    public static HotelFacilityDataLoader loader(String snapshotPath) {
+        return new HotelFacilityDataLoader(HOTELS, FACILITIES, false, snapshotPath, new SimpleMeterRegistry());
+    }
+
+    /** Up to {@code limit} hotel codes from the first sheet column, spread over the file. */
+    public static List<String> hotelCodes(int limit) throws Exception {
+        return column(HOTELS, 3, 0, limit);
+    }
+
+    public static List<String> facilityNames(int limit) throws Exception {
+        return column(FACILITIES, 2, 1, limit);
+    }
+
+    private static List<String> column(Resource resource, int columns, int column, int limit) throws Exception {
+        List<String> all = new ArrayList<>();
+        try (InputStream is = resource.getInputStream()) {
+            XlsxSheetReader.read(is, columns, new DataFormatter(Locale.US), (rowNum, cells) -> {
+                if (rowNum > 0 && cells[column] != null) all.add(cells[column].trim());
+            });
+        }
+        int step = Math.max(1, all.size() / limit);
+        List<String> sample = new ArrayList<>(Math.min(limit, all.size()));
+        for (int i = 0; i < all.size() && sample.size() < limit; i += step) sample.add(all.get(i));
+        return sample;
+    }
+
+    /** {@code code} with one character replaced, as a user would mistype it. */
+    public static String typo(String code) {
+        int at = code.length() / 2;
+        char c = code.charAt(at) == 'a' ? 'b' : 'a';
+        return code.substring(0, at) + c + code.substring(at + 1);
+    }
+}
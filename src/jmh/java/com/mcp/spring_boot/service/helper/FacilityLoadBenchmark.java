@@ -0,0 +1,58 @@
+package com.mcp.spring_boot.service.helper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/** Startup cost of the facility dataset: parsing the spreadsheets vs. mapping the binary snapshot. */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+@State(Scope.Benchmark)
+public class FacilityLoadBenchmark {
+
+    private Path dir;
+    private String snapshot;
+
+    @Setup(Level.Trial)
+    public void writeSnapshot() throws Exception {
+        dir = Files.createTempDirectory("facility-bench");
+        snapshot = dir.resolve("facilities.snapshot").toString();
+        FacilityBenchmarkData.loader(snapshot).loadData();
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() throws Exception {
+        Files.deleteIfExists(Path.of(snapshot));
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public HotelFacilityDataLoader fromXlsx() {
+        HotelFacilityDataLoader loader = FacilityBenchmarkData.loader("");
+        loader.loadData();
+        return loader;
+    }
+
+    @Benchmark
+    public HotelFacilityDataLoader fromSnapshot() {
+        HotelFacilityDataLoader loader = FacilityBenchmarkData.loader(snapshot);
+        loader.loadData();
+        return loader;
+    }
+}
@@ -0,0 +1,107 @@
+package com.mcp.spring_boot.service.helper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call lookups served from the loaded facility dataset; together they make
+ * up hotel_facility_check (listing for a known code, suggestions for a mistyped one).
+ * {@code closestHotelCodeLinearScan} is the scan {@link HotelCodeMatcher} replaced,
+ * kept as the baseline for {@code closestHotelCode}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FacilityLookupBenchmark {
+
+    private HotelFacilityDataLoader loader;
+    private String[] codes;
+    private String[] typos;
+    private List<String> allCodes;              // every normalized code, as the old scan saw them
+    private List<List<String>> facilityQueries;
+    private int next;
+
+    @Setup
+    public void load() throws Exception {
+        loader = FacilityBenchmarkData.loader("");
+        loader.loadData();
+        codes = FacilityBenchmarkData.hotelCodes(1024).toArray(String[]::new);
+        typos = new String[codes.length];
+        for (int i = 0; i < codes.length; i++) typos[i] = FacilityBenchmarkData.typo(codes[i]);
+        allCodes = FacilityBenchmarkData.hotelCodes(Integer.MAX_VALUE).stream()
+                .map(c -> c.toLowerCase(Locale.ROOT)).distinct().sorted().toList();
+        List<String> names = FacilityBenchmarkData.facilityNames(16);
+        facilityQueries = List.of(names.subList(0, 1), names.subList(0, 2), names.subList(2, 6));
+    }
+
+    /** Round-robin over the samples so lookups do not hit one hot entry. */
+    private int nextIndex() {
+        return next = next + 1 == codes.length ? 0 : next + 1;
+    }
+
+    @Benchmark
+    public List<String> facilityNames() {
+        return loader.getFacilityNamesForHotel(codes[nextIndex()]);
+    }
+
+    /** Steady state: the 1024 codes cycle, so each listing is rendered once and then looked up. */
+    @Benchmark
+    public String facilityListing() {
+        return loader.getFacilityListing(codes[nextIndex()]);
+    }
+
+    @Benchmark
+    public String closestHotelCode() {
+        return loader.findClosestHotelCode(typos[nextIndex()]);
+    }
+
+    @Benchmark
+    public String closestHotelCodeLinearScan() {
+        String input = typos[nextIndex()].trim().toLowerCase(Locale.ROOT);
+        return allCodes.stream()
+                .min(Comparator.comparingInt(k -> levenshtein(input, k)))
+                .orElse("no similar code");
+    }
+
+    /** The full-matrix Levenshtein the linear scan used. */
+    private static int levenshtein(String a, String b) {
+        int[] prev = new int[b.length() + 1];
+        int[] cur  = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) prev[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            cur[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                cur[j] = Math.min(Math.min(cur[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+            }
+            int[] tmp = prev; prev = cur; cur = tmp;
+        }
+        return prev[b.length()];
+    }
+
+    @Benchmark
+    public List<String> closestHotelCodesForSuggestions() {
+        return loader.findClosestHotelCodes(typos[nextIndex()], 3, 3);
+    }
+
+    @Benchmark
+    public HotelFacilityDataLoader.FacilitySearchResult hotelsByFacilities() {
+        return loader.findHotelsByFacilities(facilityQueries.get(nextIndex() % facilityQueries.size()), true, 20);
+    }
+}
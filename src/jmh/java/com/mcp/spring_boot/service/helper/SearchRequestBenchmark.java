@@ -0,0 +1,54 @@
+package com.mcp.spring_boot.service.helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.spring_boot.params.HotelSearchParams;
+import com.mcp.spring_boot.params.LocationHotelSearchRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Per-search request work: the JSON body sent upstream and the response-cache key. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchRequestBenchmark {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private LocationHotelSearchRequest request;
+
+    @Setup
+    public void build() throws Exception {
+        List<HotelSearchParams.Room> rooms = mapper.readValue("""
+                [{"adults":2,"child":1,"childAges":[7]},{"adults":1}]""",
+                mapper.getTypeFactory().constructCollectionType(List.class, HotelSearchParams.Room.class));
+        request = LocationHotelSearchRequest.builder()
+                .checkIn("2026-07-01").checkOut("2026-07-08")
+                .clientNationality("TR").rooms(rooms).allPricesFlag(true)
+                .limit(10).offset(0)
+                .feedId("1714d37c-2a14-460d-8344-cdff5cf02018").locationId(23432)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializeBody() throws Exception {
+        return mapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public String cacheKey() {
+        return SearchResponseCache.key(request);
+    }
+}
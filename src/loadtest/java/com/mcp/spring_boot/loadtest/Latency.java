@@ -0,0 +1,80 @@
+package com.mcp.spring_boot.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latency model of one stubbed upstream endpoint. Specs:
+ * <pre>
+ * fixed:80ms
+ * uniform:20ms-200ms
+ * lognormal:80ms/400ms      median / p99, the long right tail real APIs have
+ * </pre>
+ */
+final class Latency {
+
+    /** Standard normal quantile of 0.99. */
+    private static final double Z99 = 2.3263;
+
+    private final String spec;
+    private final double medianNanos;
+    private final double minNanos;
+    private final double maxNanos;
+    private final double sigma;        // > 0 only for lognormal
+
+    private Latency(String spec, double medianNanos, double minNanos, double maxNanos, double sigma) {
+        this.spec = spec;
+        this.medianNanos = medianNanos;
+        this.minNanos = minNanos;
+        this.maxNanos = maxNanos;
+        this.sigma = sigma;
+    }
+
+    static Latency parse(String spec) {
+        int colon = spec.indexOf(':');
+        String kind = colon < 0 ? "fixed" : spec.substring(0, colon);
+        String value = spec.substring(colon + 1);
+        switch (kind) {
+            case "fixed" -> {
+                double d = nanos(value);
+                return new Latency(spec, d, d, d, 0);
+            }
+            case "uniform" -> {
+                String[] range = value.split("-", 2);
+                return new Latency(spec, 0, nanos(range[0]), nanos(range[1]), 0);
+            }
+            case "lognormal" -> {
+                String[] quantiles = value.split("/", 2);
+                double median = nanos(quantiles[0]);
+                double p99 = nanos(quantiles[1]);
+                if (p99 < median) throw new IllegalArgumentException("p99 below median in latency " + spec);
+                return new Latency(spec, median, 0, 0, Math.log(p99 / median) / Z99);
+            }
+            default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+        }
+    }
+
+    Duration next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double nanos;
+        if (sigma > 0) {
+            nanos = medianNanos * Math.exp(sigma * random.nextGaussian());
+        } else if (maxNanos > minNanos) {
+            nanos = random.nextDouble(minNanos, maxNanos);
+        } else {
+            nanos = minNanos;
+        }
+        return Duration.ofNanos((long) nanos);
+    }
+
+    private static double nanos(String duration) {
+        return DurationStyle.detectAndParse(duration.trim()).toNanos();
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
@@ -0,0 +1,407 @@
+package com.mcp.spring_boot.loadtest;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.transport.WebFluxSseClientTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end load test: starts {@link UpstreamStub} and the MCP server
+ * ({@link ServerProcess}) pointed at it, opens {@code sessions} MCP clients
+ * over the WebFlux SSE transport and lets each call tools back to back (closed
+ * loop, optional think time) for the warm-up and then the measured phase.
+ *
+ * <p>Reports per tool throughput and p50/p90/p99/max latency as seen by the
+ * client, plus the server's live threads, heap and CPU sampled every second.
+ * The report is printed and written to {@code report.txt} next to
+ * {@code server.log}. Run with the {@code loadtest} profile, see the README.</p>
+ */
+public final class LoadTest {
+
+    static final String SEARCH_BY_LOCATION = "hotel_search_by_location";
+    static final String SEARCH_MULTI_CITY = "hotel_search_multi_city";
+    static final String FACILITY_CHECK = "hotel_facility_check";
+    static final String SEARCH_BY_FACILITIES = "hotel_search_by_facilities";
+    static final String RESERVATION = "hotel_reservation";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final LoadTestOptions options;
+    private final String[] weightedTools;
+    private volatile List<String> hotelCodes = List.of("LOADTEST");
+
+    LoadTest(LoadTestOptions options) {
+        this.options = options;
+        this.weightedTools = options.mix().entrySet().stream()
+                .flatMap(e -> Collections.nCopies(e.getValue(), e.getKey()).stream())
+                .toArray(String[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        // the harness has no Spring logging setup; keep client chatter out of the report
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        new LoadTest(LoadTestOptions.parse(args)).run();
+    }
+
+    void run() throws Exception {
+        LoadTestOptions o = options;
+        try (UpstreamStub upstream = new UpstreamStub(o.autocompleteLatency(), o.searchLatency(),
+                                                      o.upstreamErrorRate(), o.hotelsPerCity());
+             ServerProcess server = ServerProcess.start(upstream.baseUrl(), o.serverJvmArgs(), o.serverArgs(),
+                                                        o.reportDir().resolve("server.log"))) {
+            server.awaitReady(Duration.ofMinutes(2));
+            System.out.printf("MCP server %s (log %s), upstream stub %s%n", server.baseUrl(), server.logFile(), upstream.baseUrl());
+
+            ConnectionProvider connections = ConnectionProvider.builder("loadtest")
+                    .maxConnections(o.sessions() * 2 + 16)      // one SSE stream plus one POST per session
+                    .pendingAcquireMaxCount(-1)
+                    .build();
+            WebClient.Builder http = WebClient.builder()
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                    .baseUrl(server.baseUrl());
+            List<McpAsyncClient> sessions = connect(http, o.sessions());
+            try {
+                hotelCodes = seedHotelCodes(sessions.get(0));
+                upstream.hotelCodes(hotelCodes);
+                System.out.printf("%d sessions open, %d hotel codes seeded; warming up for %s%n",
+                                  sessions.size(), hotelCodes.size(), format(o.warmup()));
+
+                drive(sessions, o.warmup(), null);
+
+                Results results = new Results(o.mix().keySet());
+                long searchesBefore = upstream.searchCalls.sum();
+                long autocompletesBefore = upstream.autocompleteCalls.sum();
+                ResourceSampler sampler = new ResourceSampler(server);
+                System.out.printf("measuring for %s%n", format(o.duration()));
+                long start = System.nanoTime();
+                drive(sessions, o.duration(), results);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                sampler.stop();
+
+                String report = report(results, seconds, sampler,
+                                       upstream.searchCalls.sum() - searchesBefore,
+                                       upstream.autocompleteCalls.sum() - autocompletesBefore,
+                                       upstream.failedCalls.sum());
+                System.out.print(report);
+                Files.writeString(o.reportDir().resolve("report.txt"), report);
+            } finally {
+                Flux.fromIterable(sessions)
+                    .flatMap(s -> s.closeGracefully().onErrorResume(e -> Mono.empty()))
+                    .blockLast(Duration.ofSeconds(30));
+                connections.disposeLater().block(Duration.ofSeconds(10));
+            }
+        }
+    }
+
+    private List<McpAsyncClient> connect(WebClient.Builder http, int count) {
+        return Flux.range(0, count)
+                .flatMapSequential(i -> {
+                    McpAsyncClient client = McpClient.async(WebFluxSseClientTransport.builder(http.clone()).build())
+                            .requestTimeout(options.requestTimeout())
+                            .clientInfo(new McpSchema.Implementation("hotel-mcp-loadtest", "1.0"))
+                            .build();
+                    return client.initialize().thenReturn(client);
+                }, 16)
+                .collectList()
+                .block(Duration.ofMinutes(1));
+    }
+
+    /** Real hotel codes from the server's facility data, so facility checks and filters hit. */
+    private List<String> seedHotelCodes(McpAsyncClient session) {
+        Map<String, Object> params = Map.of("facilities", options.facilities(), "matchAll", false, "limit", 100);
+        McpSchema.CallToolResult result = session
+                .callTool(new McpSchema.CallToolRequest(SEARCH_BY_FACILITIES, Map.of("params", params)))
+                .onErrorResume(e -> Mono.empty())                   // older servers lack the tool
+                .block(options.requestTimeout());
+        List<String> codes = result == null ? List.of() : text(result).lines()
+                .filter(line -> line.startsWith("- "))
+                .map(line -> line.substring(2).trim())
+                .toList();
+        if (codes.isEmpty()) {
+            System.out.printf("no hotels found for facilities %s, using placeholder codes%n", options.facilities());
+            return hotelCodes;
+        }
+        return codes;
+    }
+
+    /** Every session calls tools back to back until {@code length} is over; {@code results} null means warm-up. */
+    private void drive(List<McpAsyncClient> sessions, Duration length, Results results) {
+        long deadline = System.nanoTime() + length.toNanos();
+        Duration think = options.thinkTime();
+        Flux.fromIterable(sessions)
+            .flatMap(session -> Mono.defer(() -> call(session, results))
+                                    .then(think.isZero() ? Mono.empty() : Mono.delay(think).then())
+                                    .repeat(() -> System.nanoTime() < deadline),
+                     sessions.size())
+            .blockLast();
+    }
+
+    private Mono<Void> call(McpAsyncClient session, Results results) {
+        String tool = weightedTools[ThreadLocalRandom.current().nextInt(weightedTools.length)];
+        McpSchema.CallToolRequest request = new McpSchema.CallToolRequest(tool, Map.of("params", arguments(tool)));
+        long start = System.nanoTime();
+        return session.callTool(request)
+                .map(result -> succeeded(tool, result) ? Outcome.OK : Outcome.FAILED)
+                .onErrorReturn(Outcome.ERROR)
+                .doOnNext(outcome -> {
+                    if (results != null) results.record(tool, System.nanoTime() - start, outcome);
+                })
+                .then();
+    }
+
+    private Map<String, Object> arguments(String tool) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, Object> params = new HashMap<>();
+        switch (tool) {
+            case SEARCH_BY_LOCATION -> {
+                LocalDate checkIn = LocalDate.now().plusDays(1 + random.nextInt(options.distinctDates()));
+                params.put("city", "Loadtest City " + random.nextInt(options.cities()));
+                params.put("checkIn", checkIn.toString());
+                params.put("checkOut", checkIn.plusDays(2).toString());
+                params.put("clientNationality", "TR");
+                params.put("rooms", List.of(Map.of("adults", 2, "child", 0, "childAges", List.of())));
+                params.put("limit", options.searchLimit());
+                params.put("offset", 0);
+                if (random.nextDouble() < options.filterRatio()) {
+                    params.put("requiredFacilities", List.of(pick(options.facilities())));
+                }
+            }
+            case SEARCH_MULTI_CITY -> {
+                LocalDate checkIn = LocalDate.now().plusDays(1 + random.nextInt(options.distinctDates()));
+                params.put("cities", random.ints(3, 0, options.cities()).distinct().mapToObj(i -> "Loadtest City " + i).toList());
+                params.put("checkIn", checkIn.toString());
+                params.put("checkOut", checkIn.plusDays(2).toString());
+                params.put("clientNationality", "TR");
+                params.put("rooms", List.of(Map.of("adults", 2, "child", 0, "childAges", List.of())));
+                params.put("limit", options.searchLimit());
+            }
+            case FACILITY_CHECK, RESERVATION -> params.put("hotelCode", pick(hotelCodes));
+            case SEARCH_BY_FACILITIES -> {
+                params.put("facilities", random.nextBoolean() ? options.facilities() : List.of(pick(options.facilities())));
+                params.put("matchAll", random.nextBoolean());
+            }
+            default -> { }
+        }
+        return params;
+    }
+
+    private static <T> T pick(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    /** Tool errors, and searches that answered with an apology instead of results, count as failed. */
+    private static boolean succeeded(String tool, McpSchema.CallToolResult result) {
+        if (Boolean.TRUE.equals(result.isError())) return false;
+        String text = text(result).stripLeading();
+        return switch (tool) {
+            case SEARCH_BY_LOCATION -> text.startsWith("{") || text.startsWith("[");
+            case SEARCH_MULTI_CITY -> text.startsWith("{") && text.endsWith("\"failed\":0}");
+            default -> true;
+        };
+    }
+
+    /** The first text content, unwrapped if the server JSON-encoded it as a string. */
+    private static String text(McpSchema.CallToolResult result) {
+        if (result == null || result.content() == null) return "";
+        for (McpSchema.Content content : result.content()) {
+            if (content instanceof McpSchema.TextContent t && t.text() != null) {
+                String text = t.text();
+                if (!text.startsWith("\"")) return text;
+                try {
+                    return MAPPER.readValue(text, String.class);
+                } catch (JsonProcessingException e) {
+                    return text;
+                }
+            }
+        }
+        return "";
+    }
+
+    enum Outcome { OK, FAILED, ERROR }
+
+    /** Client-side latency per tool, in microseconds. */
+    static final class Results {
+
+        final Map<String, Histogram> latencies = new LinkedHashMap<>();
+        final Map<String, LongAdder[]> outcomes = new LinkedHashMap<>();
+
+        Results(Iterable<String> tools) {
+            for (String tool : tools) {
+                latencies.put(tool, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+                LongAdder[] counts = new LongAdder[Outcome.values().length];
+                for (int i = 0; i < counts.length; i++) counts[i] = new LongAdder();
+                outcomes.put(tool, counts);
+            }
+        }
+
+        void record(String tool, long nanos, Outcome outcome) {
+            latencies.get(tool).recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+            outcomes.get(tool)[outcome.ordinal()].increment();
+        }
+    }
+
+    /** Polls the server's live threads, heap and CPU once a second. */
+    static final class ResourceSampler {
+
+        private final ServerProcess server;
+        private final Disposable polling;
+        private final List<double[]> samples = new ArrayList<>();   // threads, heap bytes, cpu share
+        private final double[] waitBefore;
+        private double[] waitAfter;
+
+        ResourceSampler(ServerProcess server) {
+            this.server = server;
+            this.waitBefore = dispatchWait();
+            this.polling = Flux.interval(Duration.ZERO, Duration.ofSeconds(1), Schedulers.boundedElastic())
+                    .subscribe(tick -> sample());
+        }
+
+        private void sample() {
+            double[] sample = {
+                    server.metric("jvm.threads.live", null),
+                    server.metric("jvm.memory.used", "area:heap"),
+                    server.metric("process.cpu.usage", null)
+            };
+            synchronized (samples) {
+                samples.add(sample);
+            }
+        }
+
+        void stop() {
+            polling.dispose();
+            waitAfter = dispatchWait();
+        }
+
+        /** Count and total seconds blocking tools waited for a thread, so far. */
+        private double[] dispatchWait() {
+            return new double[] {
+                    server.metric("mcp.tool.dispatch.wait", null, "COUNT"),
+                    server.metric("mcp.tool.dispatch.wait", null, "TOTAL_TIME")
+            };
+        }
+
+        /** Mean wait of the calls dispatched while sampling, in seconds. */
+        double meanDispatchWait() {
+            double calls = waitAfter[0] - waitBefore[0];
+            return calls > 0 ? (waitAfter[1] - waitBefore[1]) / calls : 0;
+        }
+
+        double maxDispatchWait() {
+            return server.metric("mcp.tool.dispatch.wait", null, "MAX");
+        }
+
+        /** Most blocking tool calls running at once (the summary's recent max). */
+        double maxConcurrentTools() {
+            return server.prometheus("mcp_tool_concurrency_max");
+        }
+
+        /** Mean search response size before ({@code in}) or after ({@code out}) projection, over the whole run. */
+        double meanProjectedBytes(String direction) {
+            double count = server.metric("search.projection.bytes", "direction:" + direction, "COUNT");
+            return count > 0 ? server.metric("search.projection.bytes", "direction:" + direction, "TOTAL") / count : 0;
+        }
+
+        double average(int column) {
+            synchronized (samples) {
+                return samples.stream().mapToDouble(s -> s[column]).filter(v -> v >= 0).average().orElse(-1);
+            }
+        }
+
+        double max(int column) {
+            synchronized (samples) {
+                return samples.stream().mapToDouble(s -> s[column]).max().orElse(-1);
+            }
+        }
+
+        double peakThreads() {
+            return server.metric("jvm.threads.peak", null);
+        }
+    }
+
+    private String report(Results results, double seconds, ResourceSampler sampler,
+                          long searchCalls, long autocompleteCalls, long failedUpstreamCalls) {
+        LoadTestOptions o = options;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%n== hotel-mcp load test: %d sessions, %.1fs measured after %s warm-up, think time %s ==%n",
+                                o.sessions(), seconds, format(o.warmup()), format(o.thinkTime())));
+        sb.append(String.format(Locale.ROOT, "upstream latency: autocomplete %s, search %s, error rate %.3f%n",
+                                o.autocompleteLatency(), o.searchLatency(), o.upstreamErrorRate()));
+        if (!o.serverArgs().isEmpty()) sb.append("server overrides: ").append(String.join(" ", o.serverArgs())).append('\n');
+        sb.append(String.format(Locale.ROOT, "%n%-28s %8s %8s %7s %7s %9s %9s %9s %9s %9s%n",
+                                "tool", "calls", "ok", "failed", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+
+        Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+        long[] totals = new long[Outcome.values().length];
+        for (Map.Entry<String, Histogram> e : results.latencies.entrySet()) {
+            LongAdder[] counts = results.outcomes.get(e.getKey());
+            long[] row = new long[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                row[i] = counts[i].sum();
+                totals[i] += row[i];
+            }
+            all.add(e.getValue());
+            sb.append(row(e.getKey(), e.getValue(), row, seconds));
+        }
+        sb.append(row("all", all, totals, seconds));
+
+        sb.append(String.format(Locale.ROOT, "%nserver threads: avg %.0f, max %.0f live, peak %.0f%n",
+                                sampler.average(0), sampler.max(0), sampler.peakThreads()));
+        sb.append(String.format(Locale.ROOT, "server heap used: avg %.0f MB, max %.0f MB%n",
+                                sampler.average(1) / (1 << 20), sampler.max(1) / (1 << 20)));
+        sb.append(String.format(Locale.ROOT, "server cpu: avg %.0f%%, max %.0f%%%n",
+                                sampler.average(2) * 100, sampler.max(2) * 100));
+        sb.append(String.format(Locale.ROOT, "server blocking tools: up to %.0f running at once, thread wait avg %.2f ms, max %.2f ms%n",
+                                sampler.maxConcurrentTools(), sampler.meanDispatchWait() * 1000, sampler.maxDispatchWait() * 1000));
+        sb.append(String.format(Locale.ROOT, "search responses: %.0f bytes in, %.0f bytes out on average after projection%n",
+                                sampler.meanProjectedBytes("in"), sampler.meanProjectedBytes("out")));
+        sb.append(String.format(Locale.ROOT, "upstream calls: %d search (%.1f/s), %d autocomplete, %d stubbed failures in total%n",
+                                searchCalls, searchCalls / seconds, autocompleteCalls, failedUpstreamCalls));
+        return sb.toString();
+    }
+
+    private static String row(String tool, Histogram h, long[] counts, double seconds) {
+        long calls = h.getTotalCount();
+        return String.format(Locale.ROOT, "%-28s %8d %8d %7d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                             tool, calls, counts[Outcome.OK.ordinal()], counts[Outcome.FAILED.ordinal()],
+                             counts[Outcome.ERROR.ordinal()], calls / seconds,
+                             millis(h, 50), millis(h, 90), millis(h, 99), calls == 0 ? 0 : h.getMaxValue() / 1000.0);
+    }
+
+    private static String format(Duration d) {
+        return d.toMillis() % 1000 == 0 ? d.toSeconds() + "s" : d.toMillis() + "ms";
+    }
+
+    private static double millis(Histogram h, double percentile) {
+        return h.getTotalCount() == 0 ? 0 : h.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,118 @@
+package com.mcp.spring_boot.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line of {@link LoadTest}: {@code --name=value} pairs, see {@link #DEFAULTS}.
+ * Arguments whose name contains a dot ({@code --api.search-cache.ttl=0s}) are
+ * not harness options but passed through to the MCP server.
+ */
+record LoadTestOptions(int sessions,
+                       Duration duration,
+                       Duration warmup,
+                       Duration thinkTime,
+                       Duration requestTimeout,
+                       Map<String, Integer> mix,
+                       Latency autocompleteLatency,
+                       Latency searchLatency,
+                       double upstreamErrorRate,
+                       int cities,
+                       int hotelsPerCity,
+                       int searchLimit,
+                       int distinctDates,
+                       double filterRatio,
+                       List<String> facilities,
+                       List<String> serverJvmArgs,
+                       List<String> serverArgs,
+                       Path reportDir) {
+
+    static final Map<String, String> DEFAULTS = defaults();
+
+    private static Map<String, String> defaults() {
+        Map<String, String> d = new LinkedHashMap<>();
+        d.put("sessions", "20");                          // concurrent MCP sessions, one SSE stream each
+        d.put("duration", "30s");                         // measured phase
+        d.put("warmup", "10s");                           // unrecorded phase before it (JIT, pools, caches)
+        d.put("think-time", "0ms");                       // pause between two calls of a session
+        d.put("request-timeout", "60s");
+        d.put("mix", "hotel_search_by_location:6,hotel_facility_check:3,hotel_search_by_facilities:1");
+        d.put("autocomplete-latency", "lognormal:40ms/200ms");
+        d.put("search-latency", "lognormal:300ms/1500ms");
+        d.put("upstream-error-rate", "0");
+        d.put("cities", "50");                            // distinct city names, each resolved once via autocomplete
+        d.put("hotels-per-city", "100");
+        d.put("search-limit", "10");
+        d.put("distinct-dates", "180");                   // check-in spread, keeps the search cache honest
+        d.put("filter-ratio", "0.2");                     // share of searches with requiredFacilities
+        d.put("facilities", "Fitness Center,Bar");        // seeds hotel codes and search filters
+        d.put("server-jvm-args", "-Xmx512m");
+        d.put("report-dir", "target/loadtest");
+        return Collections.unmodifiableMap(d);
+    }
+
+    static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>(DEFAULTS);
+        List<String> serverArgs = new ArrayList<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) throw new IllegalArgumentException("Expected --name=value: " + arg);
+            String name = arg.substring(2, eq);
+            if (name.contains(".")) {
+                serverArgs.add(arg);
+            } else if (values.containsKey(name)) {
+                values.put(name, arg.substring(eq + 1));
+            } else {
+                throw new IllegalArgumentException("Unknown option --" + name + ", known: " + DEFAULTS.keySet());
+            }
+        }
+        return new LoadTestOptions(
+                Integer.parseInt(values.get("sessions")),
+                duration(values.get("duration")),
+                duration(values.get("warmup")),
+                duration(values.get("think-time")),
+                duration(values.get("request-timeout")),
+                mix(values.get("mix")),
+                Latency.parse(values.get("autocomplete-latency")),
+                Latency.parse(values.get("search-latency")),
+                Double.parseDouble(values.get("upstream-error-rate")),
+                Integer.parseInt(values.get("cities")),
+                Integer.parseInt(values.get("hotels-per-city")),
+                Integer.parseInt(values.get("search-limit")),
+                Math.max(1, Integer.parseInt(values.get("distinct-dates"))),
+                Double.parseDouble(values.get("filter-ratio")),
+                split(values.get("facilities"), ","),
+                split(values.get("server-jvm-args"), " "),
+                List.copyOf(serverArgs),
+                Path.of(values.get("report-dir")));
+    }
+
+    private static Duration duration(String value) {
+        return DurationStyle.detectAndParse(value);
+    }
+
+    /** {@code tool:weight,tool:weight}; a missing weight counts as 1. */
+    private static Map<String, Integer> mix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : split(value, ",")) {
+            int colon = entry.lastIndexOf(':');
+            int weight = colon < 0 ? 1 : Integer.parseInt(entry.substring(colon + 1).trim());
+            if (weight > 0) mix.put(colon < 0 ? entry : entry.substring(0, colon).trim(), weight);
+        }
+        if (mix.isEmpty()) throw new IllegalArgumentException("Empty tool mix");
+        return mix;
+    }
+
+    private static List<String> split(String value, String separator) {
+        return Arrays.stream(value.split(separator)).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    }
+}
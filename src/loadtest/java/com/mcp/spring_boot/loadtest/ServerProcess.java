@@ -0,0 +1,136 @@
+package com.mcp.spring_boot.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mcp.spring_boot.HotelMcpApplication;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The MCP server under test, started as a separate JVM on the harness's own
+ * classpath so that its thread and heap figures are not mixed with the load
+ * generator's. Output goes to {@code server.log} in the report directory;
+ * resource usage is read back from its {@code /actuator/metrics} endpoint.
+ */
+final class ServerProcess implements AutoCloseable {
+
+    private final Process process;
+    private final int port;
+    private final Path logFile;
+    private final WebClient actuator;
+    private final WebClient prometheus;
+
+    private ServerProcess(Process process, int port, Path logFile) {
+        this.process = process;
+        this.port = port;
+        this.logFile = logFile;
+        this.actuator = WebClient.create(baseUrl() + "/actuator/metrics/");
+        this.prometheus = WebClient.create(baseUrl() + "/actuator/prometheus");
+    }
+
+    static ServerProcess start(String upstreamBaseUrl, List<String> jvmArgs, List<String> appArgs, Path logFile) throws IOException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(HotelMcpApplication.class.getName());
+        command.add("--server.port=" + port);
+        command.add("--api.base-url=" + upstreamBaseUrl);
+        command.add("--api.facility-data.watch=false");
+        command.add("--api.location-index.learned-path=");          // stub ids must not reach the real learned file
+        command.addAll(appArgs);                       // last, so they override the above
+
+        Files.createDirectories(logFile.getParent());
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        return new ServerProcess(process, port, logFile);
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + port;
+    }
+
+    Path logFile() {
+        return logFile;
+    }
+
+    /** Polls the metrics endpoint until the application answers. */
+    void awaitReady(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("MCP server exited with " + process.exitValue() + ", see " + logFile);
+            }
+            if (metric("jvm.threads.live", null) >= 0) return;
+            Thread.sleep(250);
+        }
+        throw new IllegalStateException("MCP server not ready after " + timeout + ", see " + logFile);
+    }
+
+    /** Current value of a gauge-like meter, summed over the tag filter; -1 if unavailable. */
+    double metric(String name, String tag) {
+        return metric(name, tag, null);
+    }
+
+    /** One statistic (COUNT, TOTAL_TIME, MAX, VALUE...) of a meter, or its first one; -1 if unavailable. */
+    double metric(String name, String tag, String statistic) {
+        try {
+            JsonNode body = actuator.get()
+                    .uri(u -> tag == null ? u.path(name).build() : u.path(name).queryParam("tag", tag).build())
+                    .retrieve()
+                    .bodyToMono(JsonNode.class)
+                    .onErrorResume(e -> Mono.empty())
+                    .block(Duration.ofSeconds(2));
+            if (body == null) return -1;
+            for (JsonNode measurement : body.path("measurements")) {
+                if (statistic == null || statistic.equals(measurement.path("statistic").asText())) {
+                    return measurement.path("value").asDouble(-1);
+                }
+            }
+            return -1;
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /** Sum of a Prometheus series over its labels, for values the metrics endpoint leaves out; -1 if absent. */
+    double prometheus(String series) {
+        try {
+            String text = prometheus.get().retrieve().bodyToMono(String.class)
+                    .onErrorResume(e -> Mono.empty())
+                    .block(Duration.ofSeconds(2));
+            if (text == null) return -1;
+            return text.lines()
+                    .filter(line -> line.startsWith(series + "{") || line.startsWith(series + " "))
+                    .mapToDouble(line -> Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1)))
+                    .reduce(Double::sum)
+                    .orElse(-1);
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(15, TimeUnit.SECONDS)) process.destroyForcibly();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
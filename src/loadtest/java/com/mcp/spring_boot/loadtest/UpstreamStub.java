@@ -0,0 +1,146 @@
+package com.mcp.spring_boot.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the two hotel API endpoints the tools call. Every answer
+ * is delayed by its endpoint's {@link Latency}; a configurable fraction fails
+ * with 503 so breaker and fallback paths show up under load.
+ *
+ * <p>Autocomplete maps every query to a stable CITY id. Search serves
+ * {@code hotelsPerCity} hotels per location, paged by the request's
+ * offset/limit, with codes taken from {@link #hotelCodes(List)} so that
+ * facility filters and enrichment see real hotels. Each hotel carries a few
+ * rooms with board and price, so response projection has real work to do.</p>
+ */
+final class UpstreamStub implements AutoCloseable {
+
+    static final String AUTOCOMPLETE_PATH = "/content-service/autocomplete/search";
+    static final String SEARCH_PATH = "/generic-api-service/royal/hotel/search-by-location";
+
+    private static final int ROOMS_PER_HOTEL = 4;
+    private static final String[] BOARDS = {"Room Only", "Bed & Breakfast", "Half Board", "All Inclusive"};
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Latency autocompleteLatency;
+    private final Latency searchLatency;
+    private final double errorRate;
+    private final int hotelsPerCity;
+    private final DisposableServer server;
+
+    final LongAdder autocompleteCalls = new LongAdder();
+    final LongAdder searchCalls = new LongAdder();
+    final LongAdder failedCalls = new LongAdder();
+
+    private volatile List<String> hotelCodes = List.of("LOADTEST");
+
+    UpstreamStub(Latency autocompleteLatency, Latency searchLatency, double errorRate, int hotelsPerCity) {
+        this.autocompleteLatency = autocompleteLatency;
+        this.searchLatency = searchLatency;
+        this.errorRate = errorRate;
+        this.hotelsPerCity = hotelsPerCity;
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .post(AUTOCOMPLETE_PATH, (req, res) -> answer(req, res, autocompleteCalls, this.autocompleteLatency, this::autocomplete))
+                        .post(SEARCH_PATH, (req, res) -> answer(req, res, searchCalls, this.searchLatency, this::search)))
+                .bindNow();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    /** Hotel codes served by search, normally real ones so facility lookups hit. */
+    void hotelCodes(List<String> codes) {
+        if (!codes.isEmpty()) this.hotelCodes = List.copyOf(codes);
+    }
+
+    private interface Handler {
+        Object body(JsonNode request);
+    }
+
+    private Mono<Void> answer(HttpServerRequest req, HttpServerResponse res, LongAdder calls, Latency latency, Handler handler) {
+        calls.increment();
+        return req.receive().aggregate().asString(StandardCharsets.UTF_8).defaultIfEmpty("{}")
+                .delayElement(latency.next())
+                .flatMap(body -> {
+                    if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                        failedCalls.increment();
+                        return res.status(503).sendString(Mono.just("stubbed upstream failure")).then();
+                    }
+                    try {
+                        byte[] json = mapper.writeValueAsBytes(handler.body(mapper.readTree(body)));
+                        return res.header("Content-Type", "application/json").sendByteArray(Mono.just(json)).then();
+                    } catch (Exception e) {
+                        return res.status(400).sendString(Mono.just(e.toString())).then();
+                    }
+                });
+    }
+
+    private Object autocomplete(JsonNode request) {
+        String query = request.path("query").asText();
+        ObjectNode city = mapper.createObjectNode()
+                .put("id", locationId(query))
+                .put("locationType", "CITY")
+                .put("name", query);
+        ObjectNode item = mapper.createObjectNode();
+        item.putArray("locations").add(city);
+        ObjectNode root = mapper.createObjectNode().put("total", 1);
+        root.putArray("items").add(item);
+        return root;
+    }
+
+    private Object search(JsonNode request) {
+        int locationId = request.path("locationId").asInt();
+        int offset = Math.max(0, request.path("offset").asInt(0));
+        int limit = Math.max(0, request.path("limit").asInt(10));
+        List<String> codes = hotelCodes;
+
+        ObjectNode root = mapper.createObjectNode();
+        ObjectNode result = root.putObject("result").put("total", hotelsPerCity);
+        ArrayNode hotels = result.putArray("hotels");
+        for (int i = offset; i < Math.min(hotelsPerCity, offset + limit); i++) {
+            String code = codes.get(Math.floorMod(locationId * 31 + i, codes.size()));
+            ObjectNode hotel = hotels.addObject()
+                    .put("hotelCode", code)
+                    .put("hotelName", "Load Test Hotel " + i)
+                    .put("checkIn", request.path("checkIn").asText())
+                    .put("checkOut", request.path("checkOut").asText());
+            hotel.putObject("price").put("amount", 80 + (i * 37) % 400).put("currency", "EUR");
+            ArrayNode rooms = hotel.putArray("rooms");
+            for (int r = 0; r < ROOMS_PER_HOTEL; r++) {
+                ObjectNode room = rooms.addObject()
+                        .put("roomName", "Room type " + r)
+                        .put("cancellationPolicy", "Free cancellation until 7 days before check-in");
+                room.putObject("board").put("code", BOARDS[r % BOARDS.length]).put("name", BOARDS[r % BOARDS.length]);
+                room.putObject("price").put("amount", 80 + (i * 37) % 400 + r * 25).put("currency", "EUR");
+            }
+        }
+        return root;
+    }
+
+    /** Stable positive id per city name, like the real CITY ids. */
+    static int locationId(String query) {
+        return 1000 + Math.floorMod(query.hashCode(), 1_000_000);
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
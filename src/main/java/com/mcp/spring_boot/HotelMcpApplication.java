@@ -1,25 +1,43 @@
 package com.mcp.spring_boot;
 
 
+import com.mcp.spring_boot.config.ReactiveToolSpecifications;
+import com.mcp.spring_boot.config.ToolExecution;
+import com.mcp.spring_boot.config.ToolMetrics;
 import com.mcp.spring_boot.service.HotelSearchService;
+import io.modelcontextprotocol.server.McpServerFeatures.AsyncToolSpecification;
 import org.springframework.ai.support.ToolCallbacks;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 @SpringBootApplication
+@EnableScheduling
 public class HotelMcpApplication {
 
 	public static void main(String[] args) {
 		SpringApplication.run(HotelMcpApplication.class, args);
 	}
 
+	// Mono-returning tools are served natively by the ASYNC server; the blocking
+	// ones run on the threads chosen by api.tools.execution (see ToolExecution).
 	@Bean
-	public List<ToolCallback> hotelTools(HotelSearchService tool1) {
-		return List.of(ToolCallbacks.from(tool1));
+	public List<AsyncToolSpecification> hotelAsyncTools(HotelSearchService tool1, ToolMetrics metrics, ToolExecution execution) {
+		Set<String> reactive = ReactiveToolSpecifications.toolNames(tool1);
+		List<ToolCallback> blocking = metrics.timed(Arrays.stream(ToolCallbacks.from(tool1))
+				.filter(cb -> !reactive.contains(cb.getToolDefinition().name()))
+				.toList());
+
+		List<AsyncToolSpecification> tools = new ArrayList<>(ReactiveToolSpecifications.from(metrics, tool1));
+		tools.addAll(execution.dispatch(blocking));
+		return tools;
 	}
 
 
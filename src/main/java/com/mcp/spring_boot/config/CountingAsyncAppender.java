@@ -0,0 +1,49 @@
+package com.mcp.spring_boot.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link AsyncAppender} that counts the events it drops, per level, instead of
+ * losing them silently: below the discarding threshold (TRACE/DEBUG/INFO) and,
+ * with {@code neverBlock}, every level once the queue is full. The counts are
+ * published by {@link LogMetrics} as {@code logback.events.dropped}.
+ *
+ * <p>A full queue is detected before the event is offered, so an event that
+ * the worker makes room for in between is still counted as dropped.</p>
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    static final List<Level> LEVELS = List.of(Level.ERROR, Level.WARN, Level.INFO, Level.DEBUG, Level.TRACE);
+
+    private final LongAdder[] dropped = new LongAdder[LEVELS.size()];
+
+    public CountingAsyncAppender() {
+        for (int i = 0; i < dropped.length; i++) {
+            dropped[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isQueueBelowDiscardingThreshold() && isDiscardable(event)
+            || isNeverBlock() && getRemainingCapacity() == 0) {
+            dropped[index(event.getLevel())].increment();
+            return;
+        }
+        super.append(event);
+    }
+
+    public long dropped(Level level) {
+        return dropped[index(level)].sum();
+    }
+
+    private static int index(Level level) {
+        int i = LEVELS.indexOf(level);
+        return i < 0 ? LEVELS.size() - 1 : i;
+    }
+}
@@ -0,0 +1,49 @@
+package com.mcp.spring_boot.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+/**
+ * {@code logback.events.dropped} counter per {@link CountingAsyncAppender} and
+ * level, so log lines lost while the console cannot keep up (e.g. a burst of
+ * upstream WARNs during an outage) show up on the dashboards.
+ */
+@Component
+public class LogMetrics implements MeterBinder {
+
+    public static final String COUNTER = "logback.events.dropped";
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        for (Logger logger : context.getLoggerList()) {
+            for (Iterator<Appender<ILoggingEvent>> it = logger.iteratorForAppenders(); it.hasNext(); ) {
+                if (it.next() instanceof CountingAsyncAppender appender) {
+                    bind(registry, appender);
+                }
+            }
+        }
+    }
+
+    static void bind(MeterRegistry registry, CountingAsyncAppender appender) {
+        for (Level level : CountingAsyncAppender.LEVELS) {
+            FunctionCounter.builder(COUNTER, appender, a -> a.dropped(level))
+                    .description("Log events dropped by the async appender")
+                    .tag("appender", appender.getName())
+                    .tag("level", level.levelStr.toLowerCase())
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.mcp.spring_boot.config;
+
+import io.modelcontextprotocol.server.McpServerFeatures.AsyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.DefaultToolCallResultConverter;
+import org.springframework.ai.tool.execution.ToolCallResultConverter;
+import org.springframework.ai.tool.support.ToolDefinitions;
+import org.springframework.ai.util.json.JsonParser;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registers {@link Tool @Tool} methods that return {@link Mono} as native MCP
+ * async tools.
+ *
+ * <p>{@code ToolCallbacks.from(..)} only knows synchronous callbacks; on an ASYNC
+ * server those are wrapped in {@code Mono.fromCallable(..)} on a worker thread
+ * (see {@link ToolExecution}), so a tool that blocks on WebClient pins one
+ * thread per in-flight call. Reactive
+ * tool methods registered here are subscribed directly and never block.</p>
+ *
+ * <p>Each call is timed by {@link ToolMetrics}; an error is then returned as an
+ * {@code isError} result carrying the exception's message.</p>
+ */
+public final class ReactiveToolSpecifications {
+
+    private static final ToolCallResultConverter RESULT_CONVERTER = new DefaultToolCallResultConverter();
+
+    private ReactiveToolSpecifications() {
+    }
+
+    /** Builds one async tool specification per {@code Mono}-returning {@code @Tool} method. */
+    public static List<AsyncToolSpecification> from(ToolMetrics metrics, Object... toolObjects) {
+        List<AsyncToolSpecification> specs = new ArrayList<>();
+        for (Object target : toolObjects) {
+            for (Method method : reactiveToolMethods(target)) {
+                specs.add(toSpecification(metrics, target, method));
+            }
+        }
+        return specs;
+    }
+
+    /** Names of the tools handled by {@link #from}, so the sync registration can skip them. */
+    public static Set<String> toolNames(Object... toolObjects) {
+        Set<String> names = new HashSet<>();
+        for (Object target : toolObjects) {
+            reactiveToolMethods(target).forEach(m -> names.add(ToolDefinitions.from(m).name()));
+        }
+        return names;
+    }
+
+    private static List<Method> reactiveToolMethods(Object target) {
+        Method[] methods = ReflectionUtils.getDeclaredMethods(ClassUtils.getUserClass(target));
+        List<Method> result = new ArrayList<>();
+        for (Method m : methods) {
+            if (m.isAnnotationPresent(Tool.class) && Mono.class.isAssignableFrom(m.getReturnType())) {
+                result.add(m);
+            }
+        }
+        return result;
+    }
+
+    private static AsyncToolSpecification toSpecification(ToolMetrics metrics, Object target, Method method) {
+        ToolDefinition definition = ToolDefinitions.from(method);
+        McpSchema.Tool tool = new McpSchema.Tool(definition.name(), definition.description(), definition.inputSchema());
+        ReflectionUtils.makeAccessible(method);
+
+        return new AsyncToolSpecification(tool, (exchange, arguments) ->
+                metrics.timed(definition.name(), Mono.defer(() -> invoke(target, method, arguments)))
+                    .map(result -> new McpSchema.CallToolResult(
+                            List.of(new McpSchema.TextContent(RESULT_CONVERTER.convert(result, String.class))), false))
+                    .onErrorResume(e -> Mono.just(new McpSchema.CallToolResult(
+                            List.of(new McpSchema.TextContent(errorText(e))), true))));
+    }
+
+    /** Exceptions such as NullPointerException may carry no message; the tool result must still say something. */
+    private static String errorText(Throwable e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+    }
+
+    private static Mono<?> invoke(Object target, Method method, Map<String, Object> arguments) {
+        Parameter[] parameters = method.getParameters();
+        Object[] args = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            Object raw = arguments == null ? null : arguments.get(parameters[i].getName());
+            args[i] = raw == null ? null : JsonParser.toTypedObject(raw, parameters[i].getType());
+        }
+        try {
+            return (Mono<?>) method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            return Mono.error(e.getTargetException());
+        } catch (IllegalAccessException e) {
+            return Mono.error(e);
+        }
+    }
+}
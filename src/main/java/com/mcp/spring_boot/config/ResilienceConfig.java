@@ -0,0 +1,45 @@
+package com.mcp.spring_boot.config;
+
+import com.mcp.spring_boot.service.helper.UpstreamResilience;
+import io.github.resilience4j.common.circuitbreaker.configuration.CircuitBreakerConfigCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.function.Predicate;
+
+/**
+ * Failure classification for the upstream breakers and retries; sizes, windows
+ * and backoff are plain properties under {@code resilience4j.*}.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    /** A 4xx is the caller's fault and says nothing about upstream health. */
+    private static boolean isUpstreamFailure(Throwable e) {
+        return !(e instanceof WebClientResponseException r && r.getStatusCode().is4xxClientError());
+    }
+
+    @Bean
+    public CircuitBreakerConfigCustomizer autocompleteBreakerCustomizer() {
+        return CircuitBreakerConfigCustomizer.of(UpstreamResilience.AUTOCOMPLETE,
+                builder -> builder.recordException(ResilienceConfig::isUpstreamFailure));
+    }
+
+    @Bean
+    public CircuitBreakerConfigCustomizer searchBreakerCustomizer() {
+        return CircuitBreakerConfigCustomizer.of(UpstreamResilience.SEARCH,
+                builder -> builder.recordException(ResilienceConfig::isUpstreamFailure));
+    }
+
+    /**
+     * Retry only what may succeed on a second try; wired by class name through
+     * {@code resilience4j.retry.instances.autocomplete.retry-exception-predicate}.
+     */
+    public static class TransientFailure implements Predicate<Throwable> {
+        @Override
+        public boolean test(Throwable e) {
+            return UpstreamResilience.isTransient(e);
+        }
+    }
+}
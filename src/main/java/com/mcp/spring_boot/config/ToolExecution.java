@@ -0,0 +1,100 @@
+package com.mcp.spring_boot.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.modelcontextprotocol.server.McpServerFeatures.AsyncToolSpecification;
+import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Where blocking (non-{@code Mono}) tools run on the ASYNC MCP server, chosen
+ * by {@code api.tools.execution}:
+ * <ul>
+ *   <li>{@code bounded-elastic} (default): Reactor's shared bounded elastic
+ *       pool, capped at 10 threads per CPU; excess calls queue. This is what
+ *       Spring AI uses for sync tools on its own.</li>
+ *   <li>{@code virtual-threads}: one virtual thread per call, so a call that
+ *       blocks never waits for a pool slot.</li>
+ * </ul>
+ * Reactive tools are not affected; they never block and stay on the Netty
+ * event loop. {@code mcp.tool.dispatch.wait} times how long a call waits for
+ * its thread; {@code mcp.tool.concurrency} records how many blocking calls
+ * are running as each one starts, so its max is the peak concurrency. Both
+ * are tagged with the mode.
+ */
+@Component
+public class ToolExecution implements DisposableBean {
+
+    public static final String WAIT_TIMER = "mcp.tool.dispatch.wait";
+    public static final String CONCURRENCY = "mcp.tool.concurrency";
+
+    public enum Mode { BOUNDED_ELASTIC, VIRTUAL_THREADS }
+
+    private final Mode mode;
+    private final Scheduler scheduler;
+    private final Timer dispatchWait;
+    private final DistributionSummary concurrency;
+    private final AtomicInteger executing = new AtomicInteger();
+
+    public ToolExecution(@Value("${api.tools.execution:bounded-elastic}") Mode mode, MeterRegistry registry) {
+        this.mode = mode;
+        this.scheduler = switch (mode) {
+            case BOUNDED_ELASTIC -> Schedulers.boundedElastic();
+            case VIRTUAL_THREADS -> Schedulers.fromExecutor(new VirtualThreadTaskExecutor("mcp-tool-"));
+        };
+        String tag = mode.name().toLowerCase(Locale.ROOT).replace('_', '-');
+        this.dispatchWait = Timer.builder(WAIT_TIMER)
+                .description("Time a blocking MCP tool call waits for a thread")
+                .tag("mode", tag)
+                .register(registry);
+        this.concurrency = DistributionSummary.builder(CONCURRENCY)
+                .description("Blocking MCP tool calls running when one starts")
+                .tag("mode", tag)
+                .register(registry);
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    /** Async specifications that run each callback on this mode's threads. */
+    public List<AsyncToolSpecification> dispatch(List<ToolCallback> callbacks) {
+        return callbacks.stream().map(this::dispatch).toList();
+    }
+
+    AsyncToolSpecification dispatch(ToolCallback callback) {
+        SyncToolSpecification sync = McpToolUtils.toSyncToolSpecification(callback);
+        return new AsyncToolSpecification(sync.tool(), (exchange, arguments) -> {
+            long queued = System.nanoTime();
+            return Mono.fromCallable(() -> {
+                dispatchWait.record(System.nanoTime() - queued, TimeUnit.NANOSECONDS);
+                concurrency.record(executing.incrementAndGet());
+                try {
+                    return sync.call().apply(new McpSyncServerExchange(exchange), arguments);
+                } finally {
+                    executing.decrementAndGet();
+                }
+            }).subscribeOn(scheduler);
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (mode == Mode.VIRTUAL_THREADS) scheduler.dispose();   // bounded-elastic is shared, not ours
+    }
+}
@@ -0,0 +1,12 @@
+package com.mcp.spring_boot.config;
+
+/**
+ * A failed tool call whose message is meant for the model. The cause is what
+ * actually went wrong; {@link ToolMetrics} tags the call with the cause's type.
+ */
+public class ToolFailure extends RuntimeException {
+
+    public ToolFailure(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
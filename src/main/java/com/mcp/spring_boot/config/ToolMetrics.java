@@ -0,0 +1,91 @@
+package com.mcp.spring_boot.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * {@code mcp.tool.calls} timer around every registered MCP tool, tagged with
+ * {@code tool}, {@code outcome} (success / error) and {@code exception}
+ * (simple class name, or {@code none}; for a {@link ToolFailure}, its cause's).
+ * The timer sits inside the conversion of errors to {@code isError} results, so
+ * it sees the exception itself. Percentile histograms are switched on per meter
+ * name in {@code application.properties}.
+ */
+@Component
+public class ToolMetrics {
+
+    public static final String TIMER = "mcp.tool.calls";
+
+    private final MeterRegistry registry;
+
+    public ToolMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public List<ToolCallback> timed(List<ToolCallback> callbacks) {
+        return callbacks.stream().map(this::timed).toList();
+    }
+
+    ToolCallback timed(ToolCallback delegate) {
+        String tool = delegate.getToolDefinition().name();
+        return new ToolCallback() {
+            @Override
+            public ToolDefinition getToolDefinition() {
+                return delegate.getToolDefinition();
+            }
+
+            @Override
+            public ToolMetadata getToolMetadata() {
+                return delegate.getToolMetadata();
+            }
+
+            @Override
+            public String call(String toolInput) {
+                return call(toolInput, null);
+            }
+
+            @Override
+            public String call(String toolInput, ToolContext toolContext) {
+                Timer.Sample sample = Timer.start(registry);
+                try {
+                    String result = toolContext == null ? delegate.call(toolInput) : delegate.call(toolInput, toolContext);
+                    stop(sample, tool, "success", null);
+                    return result;
+                } catch (RuntimeException e) {
+                    stop(sample, tool, "error", e);
+                    throw e;
+                }
+            }
+        };
+    }
+
+    /** Times one call of a reactive tool; cancelled calls are not recorded. */
+    public <T> Mono<T> timed(String tool, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return call.doOnSuccess(result -> stop(sample, tool, "success", null))
+                       .doOnError(e -> stop(sample, tool, "error", e));
+        });
+    }
+
+    private void stop(Timer.Sample sample, String tool, String outcome, Throwable error) {
+        sample.stop(Timer.builder(TIMER)
+                .description("MCP tool invocations")
+                .tag("tool", tool)
+                .tag("outcome", outcome)
+                .tag("exception", error == null ? "none" : exception(error).getClass().getSimpleName())
+                .register(registry));
+    }
+
+    private static Throwable exception(Throwable error) {
+        return error instanceof ToolFailure && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,93 @@
+package com.mcp.spring_boot.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * One structured {@code key=value} line per upstream exchange.
+ *
+ * <p>Successful exchanges are logged at INFO for a sampled fraction only; failed
+ * ones (4xx/5xx or transport errors) are always logged at WARN together with the
+ * redacted request headers and the response body, truncated. Bodies of
+ * successful responses are never read. Lines go through SLF4J to the async
+ * appender in {@code logback-spring.xml}, which never blocks the I/O thread:
+ * when its queue is full the line is dropped and counted in
+ * {@code logback.events.dropped}.</p>
+ */
+public class UpstreamLoggingFilter implements ExchangeFilterFunction {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamLoggingFilter.class);
+
+    private static final Set<String> REDACTED = Set.of(
+            HttpHeaders.AUTHORIZATION.toLowerCase(), HttpHeaders.PROXY_AUTHORIZATION.toLowerCase(),
+            HttpHeaders.COOKIE.toLowerCase(), HttpHeaders.SET_COOKIE.toLowerCase(), "x-api-key");
+
+    private final double sampleRate;
+    private final int maxBodyChars;
+    private final DoubleSupplier random;
+
+    public UpstreamLoggingFilter(double sampleRate, int maxBodyChars) {
+        this(sampleRate, maxBodyChars, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    UpstreamLoggingFilter(double sampleRate, int maxBodyChars, DoubleSupplier random) {
+        this.sampleRate = sampleRate;
+        this.maxBodyChars = maxBodyChars;
+        this.random = random;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        boolean sampled = sampleRate > 0 && log.isInfoEnabled() && random.getAsDouble() < sampleRate;
+        long start = System.nanoTime();
+
+        return next.exchange(request)
+                .flatMap(response -> {
+                    if (!response.statusCode().isError()) {
+                        if (sampled) {
+                            log.info("upstream method={} uri={} status={} durationMs={}",
+                                     request.method(), request.url().getPath(), response.statusCode().value(), millis(start));
+                        }
+                        return Mono.just(response);
+                    }
+                    // buffer the error body once, log it, and hand downstream an equivalent response
+                    return response.bodyToMono(String.class)
+                            .defaultIfEmpty("")
+                            .map(body -> {
+                                log.warn("upstream method={} uri={} status={} durationMs={} headers=[{}] body=\"{}\"",
+                                         request.method(), request.url().getPath(), response.statusCode().value(),
+                                         millis(start), headers(request.headers()), truncate(body));
+                                return response.mutate().body(body).build();
+                            });
+                })
+                .doOnError(e -> log.warn("upstream method={} uri={} error=\"{}\" durationMs={} headers=[{}]",
+                                         request.method(), request.url().getPath(), e.toString(), millis(start),
+                                         headers(request.headers())));
+    }
+
+    static String headers(HttpHeaders headers) {
+        return headers.entrySet().stream()
+                .map(e -> e.getKey() + "=" + (REDACTED.contains(e.getKey().toLowerCase())
+                                              ? "***" : String.join(",", e.getValue())))
+                .collect(Collectors.joining(" "));
+    }
+
+    private String truncate(String body) {
+        return body.length() <= maxBodyChars ? body : body.substring(0, maxBodyChars) + "…";
+    }
+
+    private static long millis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,25 @@
+package com.mcp.spring_boot.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientRequestObservationContext;
+import org.springframework.web.reactive.function.client.DefaultClientRequestObservationConvention;
+
+/**
+ * Default {@code http.client.requests} tags (method, uri, status, outcome,
+ * exception…) plus {@code phase}, taken from the {@link #PHASE} request
+ * attribute each call site sets (autocomplete, search).
+ */
+public class UpstreamObservationConvention extends DefaultClientRequestObservationConvention {
+
+    public static final String PHASE = "hotel-api.phase";
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ClientRequestObservationContext context) {
+        ClientRequest request = context.getRequest();
+        String phase = request == null ? null : (String) request.attribute(PHASE).orElse(null);
+        return super.getLowCardinalityKeyValues(context)
+                    .and(KeyValue.of("phase", phase == null ? "other" : phase));
+    }
+}
@@ -1,10 +1,20 @@
 package com.mcp.spring_boot.config;
 
+import io.micrometer.observation.ObservationRegistry;
+import io.netty.channel.ChannelOption;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.function.Consumer;
 
 @Configuration
 public class WebClientConfig {
@@ -21,25 +31,94 @@ public class WebClientConfig {
     @Value("${api.currency}")
     private String currency;
 
+    // ---------- connection pool ----------
+    @Value("${api.http.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${api.http.pending-acquire-max-count:500}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${api.http.pending-acquire-timeout:5s}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${api.http.max-idle-time:30s}")
+    private Duration maxIdleTime;
+
+    @Value("${api.http.max-life-time:5m}")
+    private Duration maxLifeTime;
+
+    @Value("${api.http.evict-interval:30s}")
+    private Duration evictInterval;
+
+    // ---------- client ----------
+    @Value("${api.http.connect-timeout:3s}")
+    private Duration connectTimeout;
+
+    @Value("${api.http.response-timeout:20s}")
+    private Duration responseTimeout;
+
+    @Value("${api.http.http2:false}")
+    private boolean http2;
+
+    // ---------- logging ----------
+    @Value("${api.http.log.sample-rate:0.01}")
+    private double logSampleRate;
+
+    @Value("${api.http.log.max-body:2048}")
+    private int logMaxBody;
+
+    /**
+     * Shared pool for all upstream calls. {@code metrics(true)} publishes
+     * {@code reactor.netty.connection.provider.*} gauges (active, idle, pending,
+     * total connections) to the global Micrometer registry, which Boot bridges
+     * into the actuator registry.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider hotelApiConnectionProvider() {
+        return ConnectionProvider.builder("hotel-api")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInterval)
+                .metrics(true)
+                .build();
+    }
+
     @Bean
-    public WebClient webClient() {
+    public WebClient webClient(ConnectionProvider hotelApiConnectionProvider, ObservationRegistry observationRegistry) {
+        HttpClient httpClient = HttpClient.create(hotelApiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout)     // default; endpoints narrow it via responseTimeout(Duration)
+                .compress(true);                      // Accept-Encoding: gzip + transparent decoding
+        if (http2) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+
         return WebClient.builder()
                 .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .defaultHeader("Authorization", "Bearer " + bearerToken)
                 .defaultHeader("Accept-Language", acceptLanguage)
                 .defaultHeader("X-Currency", currency)
                 .defaultHeader("Content-Type", "application/json")
-                .filter(logRequest()) // Optional: log requests
+                .filter(new UpstreamLoggingFilter(logSampleRate, logMaxBody))
+                // http.client.requests timer per call, tagged with the call's phase
+                .observationRegistry(observationRegistry)
+                .observationConvention(new UpstreamObservationConvention())
                 .build();
     }
 
-    private ExchangeFilterFunction logRequest() {
-        return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
-            System.out.println("Request: " + clientRequest.method() + " " + clientRequest.url());
-            clientRequest.headers().forEach((name, values) -> 
-                values.forEach(value -> System.out.println(name + ": " + value))
-            );
-            return reactor.core.publisher.Mono.just(clientRequest);
-        });
+    /**
+     * Per-request response timeout, for {@code WebClient.RequestBodySpec#httpRequest}.
+     * A no-op for connectors other than Reactor Netty (e.g. test stubs).
+     */
+    public static Consumer<ClientHttpRequest> responseTimeout(Duration timeout) {
+        return request -> {
+            if (request.getNativeRequest() instanceof HttpClientRequest netty) {
+                netty.responseTimeout(timeout);
+            }
+        };
     }
 }
@@ -0,0 +1,16 @@
+package com.mcp.spring_boot.params;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacilitySearchParams {
+    private List<String> facilities;     // e.g. ["Spa", "Indoor Pool"]
+    private Boolean matchAll = true;     // true = AND, false = OR
+    private Integer limit;
+}
@@ -17,6 +17,9 @@ public class LocationHotelSearchParams {
     private Boolean allPricesFlag = true;
     private Integer limit;
     private Integer offset;
+    private List<String> requiredFacilities;   // optional, e.g. ["Spa", "Indoor Pool"]
+    private Boolean includeFacilities;         // embed facility names per hotel
+    private Boolean fullResponse;              // raw upstream payload instead of the compact projection
 }
 
 
@@ -0,0 +1,31 @@
+package com.mcp.spring_boot.params;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiCityHotelSearchParams {
+    private List<String> cities;               // e.g. ["Bodrum", "Marmaris", "Fethiye"]
+    private String checkIn;
+    private String checkOut;
+    private List<DateRange> dateRanges;        // optional: search every city for each range instead
+    private String clientNationality;
+    private List<HotelSearchParams.Room> rooms;
+    private Boolean allPricesFlag = true;
+    private Integer limit;                     // hotels per city and date range
+    private List<String> requiredFacilities;
+    private Boolean includeFacilities;
+    private Boolean fullResponse;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DateRange {
+        private String checkIn;
+        private String checkOut;
+    }
+}
@@ -2,35 +2,87 @@ package com.mcp.spring_boot.service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import com.mcp.spring_boot.config.ToolFailure;
+import com.mcp.spring_boot.config.UpstreamObservationConvention;
+import com.mcp.spring_boot.config.WebClientConfig;
 import com.mcp.spring_boot.params.FacilityCheckParams;
+import com.mcp.spring_boot.params.FacilitySearchParams;
 import com.mcp.spring_boot.params.HotelReservationParam;
 import com.mcp.spring_boot.params.HotelSearchParams;
 import com.mcp.spring_boot.params.LocationHotelSearchParams;
 import com.mcp.spring_boot.params.LocationHotelSearchRequest;
+import com.mcp.spring_boot.params.MultiCityHotelSearchParams;
+import com.mcp.spring_boot.service.helper.CityNames;
 import com.mcp.spring_boot.service.helper.HotelSearchServiceMethods;
 import com.mcp.spring_boot.service.helper.HotelFacilityDataLoader;
+import com.mcp.spring_boot.service.helper.SearchPaginator;
+import com.mcp.spring_boot.service.helper.SearchResponseCache;
+import com.mcp.spring_boot.service.helper.SearchResultEnricher;
+import com.mcp.spring_boot.service.helper.SearchResultMerger;
+import com.mcp.spring_boot.service.helper.SearchResultMerger.CityResult;
+import com.mcp.spring_boot.service.helper.SearchResultProjector;
+import com.mcp.spring_boot.service.helper.UpstreamResilience;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
 public class HotelSearchService {
     private static final String FEED_ID = "1714d37c-2a14-460d-8344-cdff5cf02018";
     private static final int LIMIT = 5;
+    // first result when no offset is given; multi-city search always starts here
     private static final int OFFSET = 300;
+    private static final int MAX_LIMIT = 100;
+    // mistyped hotelCode -> at most this many suggestions, each within this many edits
+    private static final int SUGGESTIONS = 3;
+    private static final int SUGGESTION_DISTANCE = 3;
+    private static final int FACILITY_SEARCH_LIMIT = 20;
+    private static final int FACILITY_SEARCH_MAX_LIMIT = 100;
+    private static final int MULTI_CITY_MAX_LIMIT = 20;
+    private static final int MULTI_CITY_MAX_SEARCHES = 12;
 
     private static final Logger log = LoggerFactory.getLogger(HotelSearchService.class);
     private final WebClient webClient;
     private final HotelSearchServiceMethods helper;
     private final HotelFacilityDataLoader facilityDataLoader;
-    public HotelSearchService(WebClient webClient, HotelSearchServiceMethods helper, HotelFacilityDataLoader facilityDataLoader) {
+    private final SearchResponseCache searchCache;
+    private final SearchResultEnricher enricher;
+    private final SearchPaginator paginator;
+    private final SearchResultMerger merger;
+    private final SearchResultProjector projector;
+    private final Duration searchTimeout;
+    private final UpstreamResilience resilience;
+    private final int multiCityConcurrency;
+    public HotelSearchService(WebClient webClient, HotelSearchServiceMethods helper, HotelFacilityDataLoader facilityDataLoader,
+                              SearchResponseCache searchCache, SearchResultEnricher enricher, SearchPaginator paginator,
+                              SearchResultMerger merger, SearchResultProjector projector, UpstreamResilience resilience,
+                              @Value("${api.http.search-timeout:20s}") Duration searchTimeout,
+                              @Value("${api.multi-city.concurrency:4}") int multiCityConcurrency) {
         this.webClient = webClient;
         this.helper = helper;
         this.facilityDataLoader = facilityDataLoader;
+        this.searchCache = searchCache;
+        this.enricher = enricher;
+        this.paginator = paginator;
+        this.merger = merger;
+        this.projector = projector;
+        this.searchTimeout = searchTimeout;
+        this.resilience = resilience;
+        this.multiCityConcurrency = Math.max(1, multiCityConcurrency);
     }
 
 /*   @Tool(name = "hotel_search_tool", description = "Searches for hotels. All fields required except currency.")
@@ -52,15 +104,112 @@ public String search(HotelSearchParams params) {
     }*/ 
     @Tool(
     name        = "hotel_search_by_location",
-    description = "Search hotels by city name, check-in/out, and guest info. feedId and limit, offset are set internally."
+    description = "Search hotels by city name, check-in/out, and guest info. feedId is set internally; limit (max 100) and offset page through the results. "
+                + "Optional requiredFacilities keeps only hotels having all of them; includeFacilities adds each hotel's facility names. "
+                + "Returns each hotel's code, name and cheapest price with its board; set fullResponse=true for the complete hotel API response."
     )
-    public String searchByCity(LocationHotelSearchParams params) {
+    public Mono<String> searchByCity(LocationHotelSearchParams params) {
+        List<String> unknown = facilityDataLoader.unknownFacilities(params.getRequiredFacilities());
+        if (!unknown.isEmpty()) {
+            return Mono.just("Hotel search failed: " + unknownFacilities(unknown));
+        }
+        return search(params, params.getOffset() == null ? OFFSET : Math.max(0, params.getOffset()))
+                .onErrorMap(e -> {
+                    log.error("Hotel search failed: {}", e.toString());
+                    return new ToolFailure(searchFailure(e), e);
+                });
+    }
+
+    @Tool(
+    name        = "hotel_search_multi_city",
+    description = "Search hotels in several cities at once (e.g. Bodrum, Marmaris, Fethiye) for the same guests. "
+                + "Uses checkIn/checkOut, or every entry of dateRanges for each city; limit (max 20) is per city and date range. "
+                + "Returns one result per city and dates; a failing city carries an error without affecting the others. "
+                + "Hotels are listed compactly (code, name, cheapest price, board) unless fullResponse=true."
+    )
+    public Mono<String> searchMultiCity(MultiCityHotelSearchParams params) {
+        // "Bodrum" and "BODRUM" are one city; the first spelling is the one reported back
+        List<String> cities = params.getCities() == null ? List.of()
+                : List.copyOf(params.getCities().stream().filter(c -> c != null && !c.isBlank()).map(String::trim)
+                        .collect(Collectors.toMap(CityNames::normalize, c -> c, (first, again) -> first, LinkedHashMap::new))
+                        .values());
+        if (cities.isEmpty()) {
+            return Mono.just("Multi-city search failed: cities are missing.");
+        }
+        List<MultiCityHotelSearchParams.DateRange> ranges = params.getDateRanges() == null || params.getDateRanges().isEmpty()
+                ? List.of(new MultiCityHotelSearchParams.DateRange(params.getCheckIn(), params.getCheckOut()))
+                : params.getDateRanges();
+        if (cities.size() * ranges.size() > MULTI_CITY_MAX_SEARCHES) {
+            return Mono.just(String.format("Multi-city search failed: at most %d city and date combinations per call, got %d.",
+                                           MULTI_CITY_MAX_SEARCHES, cities.size() * ranges.size()));
+        }
+        List<String> unknown = facilityDataLoader.unknownFacilities(params.getRequiredFacilities());
+        if (!unknown.isEmpty()) {
+            return Mono.just("Multi-city search failed: " + unknownFacilities(unknown));
+        }
+        int limit = params.getLimit() == null ? LIMIT : Math.max(1, Math.min(params.getLimit(), MULTI_CITY_MAX_LIMIT));
+
+        List<LocationHotelSearchParams> searches = new ArrayList<>();
+        for (String city : cities) {
+            for (MultiCityHotelSearchParams.DateRange range : ranges) {
+                searches.add(new LocationHotelSearchParams(city, range.getCheckIn(), range.getCheckOut(),
+                        params.getClientNationality(), params.getRooms(), params.getAllPricesFlag(), limit, OFFSET,
+                        params.getRequiredFacilities(), params.getIncludeFacilities(), params.getFullResponse()));
+            }
+        }
+        // flatMapSequential keeps the caller's order while up to multiCityConcurrency cities are in flight
+        return Flux.fromIterable(searches)
+                .flatMapSequential(search -> search(search, OFFSET)
+                        .map(body -> CityResult.of(search.getCity(), search.getCheckIn(), search.getCheckOut(), body))
+                        .onErrorResume(e -> {
+                            log.warn("Multi-city search for {} failed: {}", search.getCity(), e.toString());
+                            return Mono.just(CityResult.failed(search.getCity(), search.getCheckIn(), search.getCheckOut(),
+                                                               searchFailure(e)));
+                        }), multiCityConcurrency)
+                .collectList()
+                .map(merger::merge);
+    }
+
+    /** Location lookup, paged search, enrichment and projection for one city; errors are left to the caller. */
+    private Mono<String> search(LocationHotelSearchParams params, int offset) {
+        int limit = params.getLimit() == null ? LIMIT : Math.max(1, Math.min(params.getLimit(), MAX_LIMIT));
+        List<String> required = params.getRequiredFacilities();
+        boolean filters = required != null && !required.isEmpty();
+        Predicate<String> keep = filters ? facilityDataLoader.hotelsHaving(required) : code -> true;
+
+        return helper.getLocationIdByQuery(params.getCity())
+                .switchIfEmpty(Mono.error(() ->
+                        new RuntimeException("No location ID found for city: " + params.getCity())))
+                .flatMap(locationId -> paginator.fetch(offset, limit, keep, filters,
+                                                       (pageOffset, pageLimit) -> searchPage(params, locationId, pageOffset, pageLimit)))
+                .map(body -> enricher.apply(body, Boolean.TRUE.equals(params.getIncludeFacilities())))
+                .map(body -> Boolean.TRUE.equals(params.getFullResponse()) ? body : projector.apply(body));
+    }
 
-        Integer locationId = helper.getLocationIdByQuery(params.getCity());
-        if (locationId == null) {
-            throw new RuntimeException("No location ID found for city: " + params.getCity());
+    /** An unknown required facility could never match, so it is reported before any upstream call. */
+    private static String unknownFacilities(List<String> unknown) {
+        return "unknown facilities " + unknown + " in requiredFacilities. Please check the facility names.";
+    }
+
+    /** Tool-facing text for a failed search, instead of a raw exception message. */
+    private static String searchFailure(Throwable e) {
+        if (e instanceof CallNotPermittedException) {
+            return "Hotel search is temporarily unavailable because the hotel API is failing. Please try again in a minute.";
+        }
+        if (e instanceof BulkheadFullException) {
+            return "Hotel search is busy right now. Please try again shortly.";
+        }
+        if (e instanceof WebClientResponseException r) {
+            return "Hotel search failed: the hotel API answered " + r.getStatusCode().value()
+                 + (r.getStatusCode().is4xxClientError() ? ". Please check the search parameters." : ".");
         }
+        if (UpstreamResilience.isTransient(e)) {
+            return "Hotel search failed: the hotel API did not respond in time.";
+        }
+        return "Hotel search failed: " + e.getMessage();
+    }
 
+    private Mono<String> searchPage(LocationHotelSearchParams params, Integer locationId, int offset, int limit) {
         // Build the typed request object
         LocationHotelSearchRequest requestBody = LocationHotelSearchRequest.builder()
                 .checkIn(params.getCheckIn())
@@ -68,23 +217,20 @@ public String search(HotelSearchParams params) {
                 .clientNationality(params.getClientNationality())
                 .rooms(params.getRooms())
                 .allPricesFlag(params.getAllPricesFlag())
-                .limit(LIMIT)
-                .offset(OFFSET)
+                .limit(limit)
+                .offset(offset)
                 .feedId(FEED_ID)           // injected
                 .locationId(locationId)    // injected
                 .build();
 
-        try {
-            return webClient.post()
-                    .uri("/generic-api-service/royal/hotel/search-by-location")
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-        } catch (Exception e) {
-            log.error("Hotel search failed: {}", e.getMessage());
-            return (e.getMessage());
-        }
+        return searchCache.get(requestBody, () -> resilience.search(() ->
+                webClient.post()
+                         .uri("/generic-api-service/royal/hotel/search-by-location")
+                         .attribute(UpstreamObservationConvention.PHASE, UpstreamResilience.SEARCH)
+                         .httpRequest(WebClientConfig.responseTimeout(searchTimeout))
+                         .bodyValue(requestBody)
+                         .retrieve()
+                         .bodyToMono(String.class)));
     }
 
     @Tool(
@@ -107,17 +253,51 @@ public String search(HotelSearchParams params) {
         if (hotelCode == null) {
             return "Facility check failed: hotelCode is missing.";
         }
-        List<String> facilities = facilityDataLoader.getFacilityNamesForHotel(hotelCode);
-        if (facilities.isEmpty()) {
+        // the listing comes from the dataset's listing cache; only the echoed code is per call
+        String listing = facilityDataLoader.getFacilityListing(hotelCode);
+        if (listing.isEmpty()) {
+            if (!facilityDataLoader.isKnownHotel(hotelCode)) {
+                List<String> similar = facilityDataLoader.findClosestHotelCodes(hotelCode, SUGGESTIONS, SUGGESTION_DISTANCE);
+                if (!similar.isEmpty()) {
+                    return String.format("No facilities found for hotelCode %s. Did you mean: %s?",
+                                         hotelCode, String.join(", ", similar));
+                }
+            }
             return String.format("No facilities found for hotelCode %s.", hotelCode);
         }
+        return "Facilities for hotelCode " + hotelCode + ":\n" + listing;
+    }
+
+    @Tool(
+    name        = "hotel_search_by_facilities",
+    description = "Find hotelCodes that have the given facilities (e.g. Spa, Indoor Pool). matchAll=true requires every facility, false any of them."
+    )
+    public String hotelSearchByFacilities(FacilitySearchParams params) {
+        List<String> wanted = params.getFacilities();
+        if (wanted == null || wanted.isEmpty()) {
+            return "Facility search failed: facilities are missing.";
+        }
+        boolean matchAll = !Boolean.FALSE.equals(params.getMatchAll());
+        int limit = params.getLimit() == null ? FACILITY_SEARCH_LIMIT
+                                              : Math.max(1, Math.min(params.getLimit(), FACILITY_SEARCH_MAX_LIMIT));
+
+        HotelFacilityDataLoader.FacilitySearchResult result =
+                facilityDataLoader.findHotelsByFacilities(wanted, matchAll, limit);
+
         StringBuilder sb = new StringBuilder();
-        sb.append(String.format("Facilities for hotelCode %s:\n", hotelCode));
-        for (String name : facilities) {
-            sb.append("- ").append(name).append("\n");
+        if (!result.unknownFacilities().isEmpty()) {
+            sb.append("Unknown facilities: ").append(String.join(", ", result.unknownFacilities())).append("\n");
+        }
+        if (result.total() == 0) {
+            return sb.append(String.format("No hotels found with %s of %s.", matchAll ? "all" : "any", wanted)).toString();
+        }
+        sb.append(String.format("%d hotels with %s of %s, showing %d:\n",
+                                result.total(), matchAll ? "all" : "any", wanted, result.hotelCodes().size()));
+        for (String code : result.hotelCodes()) {
+            sb.append("- ").append(code).append("\n");
         }
         return sb.toString();
     }
-    
+
 }
 
@@ -0,0 +1,106 @@
+package com.mcp.spring_boot.service.helper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+
+/**
+ * Streaming reader for the autocomplete response
+ * <pre>{ "items": [ { "locations": [ { "id": 7, "locationType": "CITY", … }, … ], … }, … ] }</pre>
+ *
+ * <p>Only {@code items[].locations[].id/locationType} are read into a
+ * {@link Location}; every other value is skipped without being materialised,
+ * and parsing stops at the first CITY location with a numeric id.</p>
+ */
+final class AutocompleteParser {
+
+    private static final Logger log = LoggerFactory.getLogger(AutocompleteParser.class);
+
+    static final String CITY = "CITY";
+
+    /** The two fields of an autocomplete location we care about. */
+    record Location(String id, String locationType) {
+
+        boolean isCity() {
+            return CITY.equals(locationType);
+        }
+    }
+
+    private final JsonFactory factory;
+
+    AutocompleteParser(JsonFactory factory) {
+        this.factory = factory;
+    }
+
+    /** @return the first CITY-type location id, or empty if there is none */
+    Optional<Integer> firstCityId(byte[] json) {
+        try (JsonParser p = factory.createParser(json)) {
+            if (p.nextToken() != JsonToken.START_OBJECT || !seekField(p, "items") || p.nextToken() != JsonToken.START_ARRAY) {
+                log.warn("⚠ [Autocomplete] Missing 'items' array in response");
+                return Optional.empty();
+            }
+            while (p.nextToken() == JsonToken.START_OBJECT) {               // items[]
+                Integer id = firstCityIdInItem(p);
+                if (id != null) return Optional.of(id);                      // early exit: rest is never read
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed autocomplete response", e);
+        }
+    }
+
+    /** Scans one item object; leaves the parser on its END_OBJECT unless a city is found. */
+    private Integer firstCityIdInItem(JsonParser p) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if (!"locations".equals(field) || value != JsonToken.START_ARRAY) {
+                p.skipChildren();
+                continue;
+            }
+            while (p.nextToken() == JsonToken.START_OBJECT) {               // locations[]
+                Location location = readLocation(p);
+                if (!location.isCity()) continue;
+                try {
+                    return Integer.valueOf(location.id());
+                } catch (NumberFormatException ex) {
+                    log.error("⚠ [Autocomplete] Cannot parse location id: {}", location.id());
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Location readLocation(JsonParser p) throws IOException {
+        String id = null;
+        String type = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("id".equals(field) && value.isScalarValue()) {
+                id = p.getText();
+            } else if ("locationType".equals(field) && value == JsonToken.VALUE_STRING) {
+                type = p.getText();
+            } else {
+                p.skipChildren();
+            }
+        }
+        return new Location(id, type);
+    }
+
+    /** Advances to the value of {@code name} among the current object's fields. */
+    private static boolean seekField(JsonParser p, String name) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            if (name.equals(p.currentName())) return true;
+            p.nextToken();
+            p.skipChildren();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,216 @@
+package com.mcp.spring_boot.service.helper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Offline city → CITY-type <code>locationId</code> index.
+ *
+ * <p>Loaded from a bundled CSV ({@code locationId;name;alias|alias|…}) so that
+ * known cities resolve without calling the autocomplete API. Names and aliases
+ * are keyed by {@link CityNames#normalize}. The index is periodically re-read in
+ * the background and swapped in atomically; lookups never block.</p>
+ *
+ * <p>Cities resolved by autocomplete are {@link #learn learned} for
+ * {@code api.location-index.learned-ttl} (at most {@code max-learned} keys).
+ * Only normalized keys of letters, spaces, dots, apostrophes and hyphens are
+ * learned; free text with control characters or anything else is not. If
+ * {@code api.location-index.learned-path} is set, learned keys are appended to
+ * it as {@code locationId;key;learnedAt} and read back once on start-up,
+ * dropping expired lines, so a restarted server skips autocomplete for cities
+ * it saw recently. Persistence is off by default. The bundled CSV wins over
+ * learned ids.</p>
+ */
+@Component
+public class CityLocationIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CityLocationIndex.class);
+
+    // what a normalized city name can look like; a typo may pass, a payload does not
+    private static final Pattern CITY_KEY = Pattern.compile("[\\p{L}][\\p{L} .'-]{0,63}");
+
+    /** A learned locationId and when autocomplete resolved it. */
+    private record Learned(int locationId, Instant at) {
+    }
+
+    private final Resource source;
+    // empty: learned ids stay in memory only
+    private final Path learnedPath;
+    private final Duration learnedTtl;
+
+    // normalized name/alias -> locationId; replaced wholesale on refresh
+    private volatile Map<String, Integer> index = Map.of();
+    // normalized city key -> locationId, from successful autocomplete look-ups
+    private final Cache<String, Learned> learned;
+
+    public CityLocationIndex(@Value("${api.location-index.location:classpath:city_locations.csv}") Resource source,
+                             @Value("${api.location-index.learned-path:}") String learnedPath,
+                             @Value("${api.location-index.max-learned:10000}") int maxLearned,
+                             @Value("${api.location-index.learned-ttl:7d}") Duration learnedTtl) {
+        this.source = source;
+        this.learnedPath = learnedPath.isBlank() ? null : Path.of(learnedPath);
+        this.learnedTtl = learnedTtl;
+        this.learned = Caffeine.newBuilder()
+                .maximumSize(maxLearned)
+                .expireAfter(Expiry.creating((String key, Learned value) ->
+                        Duration.between(Instant.now(), value.at().plus(learnedTtl))))
+                .build();
+    }
+
+    /* ---------- Loading ---------- */
+    @PostConstruct
+    public void init() {
+        loadLearned();
+        refresh();
+    }
+
+    @Scheduled(initialDelayString = "${api.location-index.refresh-interval:PT1H}",
+               fixedDelayString   = "${api.location-index.refresh-interval:PT1H}")
+    public void refresh() {
+        if (!source.exists()) {
+            log.warn("⚠ [CityIndex] {} not found, all look-ups go to autocomplete", source);
+            return;
+        }
+        try {
+            Map<String, Integer> loaded = load(source);
+            index = Map.copyOf(loaded);
+            log.info("✅  [CityIndex] Loaded {} city keys from {}", loaded.size(), source);
+        } catch (Exception e) {
+            log.error("❌  [CityIndex] Failed to load {}, keeping previous index", source, e);
+        }
+    }
+
+    private static Map<String, Integer> load(Resource resource) throws Exception {
+        Map<String, Integer> loaded = new HashMap<>();
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNo = 0;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank() || line.startsWith("#")) continue;
+
+                String[] cols = line.split(";", -1);
+                if (cols.length < 2) {
+                    log.warn("⚠ [CityIndex] Malformed line {}: '{}'", lineNo, line);
+                    continue;
+                }
+                try {
+                    Integer id = Integer.valueOf(cols[0].trim());
+                    loaded.put(CityNames.normalize(cols[1]), id);
+                    if (cols.length > 2 && !cols[2].isBlank()) {
+                        for (String alias : cols[2].split("\\|")) {
+                            loaded.putIfAbsent(CityNames.normalize(alias), id);
+                        }
+                    }
+                } catch (NumberFormatException ex) {
+                    log.warn("⚠ [CityIndex] Bad locationId '{}' at line {}", cols[0], lineNo);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /** Reads the learned file once; expired or malformed lines are dropped and the file is rewritten without them. */
+    private synchronized void loadLearned() {
+        if (learnedPath == null || !Files.exists(learnedPath)) return;
+        try {
+            List<String> lines = Files.readAllLines(learnedPath, StandardCharsets.UTF_8);
+            StringBuilder kept = new StringBuilder();
+            int dropped = 0;
+            Instant oldest = Instant.now().minus(learnedTtl);
+            for (String line : lines) {
+                String[] cols = line.split(";", -1);
+                try {
+                    if (cols.length == 3 && isCityKey(cols[1])) {
+                        Learned entry = new Learned(Integer.parseInt(cols[0]), Instant.parse(cols[2]));
+                        if (!entry.at().isBefore(oldest)) {
+                            learned.asMap().putIfAbsent(cols[1], entry);
+                            kept.append(line).append('\n');
+                            continue;
+                        }
+                    }
+                } catch (NumberFormatException | DateTimeParseException e) {
+                    log.debug("[CityIndex] Malformed learned line '{}'", line);
+                }
+                dropped++;
+            }
+            if (dropped > 0) {
+                Files.writeString(learnedPath, kept, StandardCharsets.UTF_8);
+            }
+            log.info("✅  [CityIndex] {} learned city keys from {}", learned.estimatedSize(), learnedPath);
+        } catch (IOException e) {
+            log.warn("⚠ [CityIndex] Cannot read learned cities {}", learnedPath, e);
+        }
+    }
+
+    /* ---------- Learning ---------- */
+    /** Remembers a CITY id resolved by autocomplete; new keys are appended to the learned file off the caller's thread. */
+    public void learn(String query, int locationId) {
+        if (query == null || query.chars().anyMatch(Character::isISOControl)) return;
+        String key = CityNames.normalize(query);
+        if (!isCityKey(key) || index.containsKey(key)) return;
+        Learned entry = new Learned(locationId, Instant.now());
+        if (learned.asMap().putIfAbsent(key, entry) != null) return;
+        if (learnedPath != null) {
+            String line = locationId + ";" + key + ";" + entry.at() + "\n";
+            Schedulers.boundedElastic().schedule(() -> append(line));
+        }
+    }
+
+    private static boolean isCityKey(String key) {
+        return CITY_KEY.matcher(key).matches() && key.equals(CityNames.normalize(key));
+    }
+
+    private synchronized void append(String line) {
+        try {
+            Path parent = learnedPath.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            Files.writeString(learnedPath, line, StandardCharsets.UTF_8,
+                              StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.warn("⚠ [CityIndex] Cannot write learned city to {}: {}", learnedPath, e.getMessage());
+        }
+    }
+
+    /* ---------- Lookup ---------- */
+    /** @return the indexed or learned locationId for an already-normalized key, or {@code null} */
+    public Integer lookup(String normalizedQuery) {
+        Integer id = index.get(normalizedQuery);
+        if (id != null) return id;
+        Learned entry = learned.getIfPresent(normalizedQuery);
+        return entry == null ? null : entry.locationId();
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public long learnedSize() {
+        return learned.estimatedSize();
+    }
+}
@@ -0,0 +1,29 @@
+package com.mcp.spring_boot.service.helper;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical form of free-text city queries, used as lookup key.
+ *
+ * <p>Folds case and diacritics so that “İSTANBUL”, “istanbul” and “Istanbul”
+ * collapse to the same key. Turkish dotted/dotless i (İ, I, ı, i) all fold to
+ * {@code i}; ş/ğ/ç/ö/ü lose their marks.</p>
+ */
+public final class CityNames {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private CityNames() {
+    }
+
+    public static String normalize(String query) {
+        if (query == null) return "";
+        String s = Normalizer.normalize(query.trim(), Normalizer.Form.NFD);   // İ -> I + ◌̇
+        s = MARKS.matcher(s).replaceAll("");
+        s = s.toLowerCase(Locale.ROOT).replace('ı', 'i');
+        return SPACES.matcher(s).replaceAll(" ");
+    }
+}
@@ -0,0 +1,136 @@
+package com.mcp.spring_boot.service.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reverse index of a {@link FacilityStore}: facility → set of hotels.
+ *
+ * <p>Each facility keeps its hotels either as a sorted {@code int[]} of hotel
+ * indexes or, once that list would outgrow it, as a {@code long[]} bitset over
+ * all hotels (the same trade-off Roaring bitmaps make per container). Queries
+ * fold everything into one working bitset, so AND/OR over a handful of
+ * facilities costs a few hundred word operations.</p>
+ */
+final class FacilityHotelIndex {
+
+    /** Query outcome: matching hotels as a bitset plus the names that matched nothing. */
+    record Result(long[] hotels, List<String> unknownFacilities) {
+
+        int count() {
+            int n = 0;
+            for (long w : hotels) n += Long.bitCount(w);
+            return n;
+        }
+    }
+
+    private final int words;
+    // dense facility index -> hotels, exactly one of the two is non-null
+    private final int[][] lists;
+    private final long[][] bitsets;
+    // lower-cased facility name -> dense facility indexes (names repeat across ids)
+    private final Map<String, int[]> byName;
+
+    FacilityHotelIndex(FacilityStore store) {
+        int hotels = store.hotelCount();
+        int[] offsets = store.rawOffsets();
+        int[] facilities = store.rawFacilities();
+        String[] names = store.rawFacilityNames();
+        int f = names.length;
+        this.words = (hotels + 63) >>> 6;
+
+        // ---------- transpose CSR: hotel -> facilities  ==>  facility -> hotels ----------
+        int[] counts = new int[f];
+        for (int fi : facilities) counts[fi]++;
+        int[][] transposed = new int[f][];
+        for (int i = 0; i < f; i++) transposed[i] = new int[counts[i]];
+        int[] fill = new int[f];
+        for (int h = 0; h < hotels; h++) {
+            for (int p = offsets[h]; p < offsets[h + 1]; p++) {
+                int fi = facilities[p];
+                int[] list = transposed[fi];
+                if (fill[fi] == 0 || list[fill[fi] - 1] != h) list[fill[fi]++] = h;   // hotels ascend; skip repeats
+            }
+        }
+
+        this.lists = new int[f][];
+        this.bitsets = new long[f][];
+        for (int i = 0; i < f; i++) {
+            int[] list = Arrays.copyOf(transposed[i], fill[i]);
+            if ((long) list.length * Integer.BYTES > (long) words * Long.BYTES) {
+                long[] bits = new long[words];
+                for (int h : list) bits[h >>> 6] |= 1L << h;
+                bitsets[i] = bits;
+            } else {
+                lists[i] = list;
+            }
+        }
+
+        Map<String, int[]> index = new HashMap<>();
+        for (int i = 0; i < f; i++) {
+            index.merge(key(names[i]), new int[] {i}, (a, b) -> {
+                int[] merged = Arrays.copyOf(a, a.length + b.length);
+                System.arraycopy(b, 0, merged, a.length, b.length);
+                return merged;
+            });
+        }
+        this.byName = index;
+    }
+
+    static String key(String facilityName) {
+        return facilityName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Names, in the given order, that match no facility of this dataset. */
+    List<String> unknown(List<String> facilityNames) {
+        List<String> unknown = new ArrayList<>();
+        for (String name : facilityNames) {
+            if (name == null || !byName.containsKey(key(name))) unknown.add(name);
+        }
+        return unknown;
+    }
+
+    /**
+     * @param facilityNames case-insensitive facility names; a name may cover several facility ids
+     * @param matchAll      {@code true} = hotels having every facility, {@code false} = any of them
+     */
+    Result query(List<String> facilityNames, boolean matchAll) {
+        long[] acc = null;
+        List<String> unknown = new ArrayList<>();
+        long[] term = new long[words];
+
+        for (String name : facilityNames) {
+            int[] ids = name == null ? null : byName.get(key(name));
+            if (ids == null) {
+                unknown.add(name);
+                continue;
+            }
+            Arrays.fill(term, 0L);
+            for (int fi : ids) orInto(term, fi);
+
+            if (acc == null) {
+                acc = term.clone();
+            } else if (matchAll) {
+                for (int w = 0; w < words; w++) acc[w] &= term[w];
+            } else {
+                for (int w = 0; w < words; w++) acc[w] |= term[w];
+            }
+        }
+        // an unknown facility can never be satisfied under AND
+        if (acc == null || (matchAll && !unknown.isEmpty())) acc = new long[words];
+        return new Result(acc, unknown);
+    }
+
+    private void orInto(long[] target, int facility) {
+        long[] bits = bitsets[facility];
+        if (bits != null) {
+            for (int w = 0; w < words; w++) target[w] |= bits[w];
+        } else {
+            for (int h : lists[facility]) target[h >>> 6] |= 1L << h;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.mcp.spring_boot.service.helper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of a {@link FacilityStore}, so startup can skip the xlsx parse.
+ *
+ * <pre>
+ *   int  MAGIC  | int FORMAT_VERSION | long sourceChecksum | long payloadCrc32 | int payloadLength
+ *   payload:
+ *     int F, F × (long id, str name)
+ *     int H, H × str code, (H+1) × int offset, int N, N × int facilityIndex
+ *   str = int byteLength + UTF-8 bytes
+ * </pre>
+ *
+ * <p>{@code sourceChecksum} identifies the spreadsheets the snapshot was built
+ * from; a snapshot with another checksum, format version or a bad CRC is
+ * treated as stale and ignored.</p>
+ */
+final class FacilitySnapshot {
+
+    private static final int MAGIC = 0x48465331;                 // "HFS1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4;
+
+    private FacilitySnapshot() {
+    }
+
+    /* ---------- Okuma ---------- */
+
+    /** @return the stored dataset, or empty if missing, stale or corrupt */
+    static Optional<FacilityStore> read(Path file, long sourceChecksum) throws IOException {
+        if (!Files.isRegularFile(file)) return Optional.empty();
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() < HEADER_BYTES) return Optional.empty();
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            buf.order(ByteOrder.BIG_ENDIAN);
+
+            if (buf.getInt() != MAGIC || buf.getInt() != FORMAT_VERSION) return Optional.empty();
+            if (buf.getLong() != sourceChecksum) return Optional.empty();
+            long crc = buf.getLong();
+            int length = buf.getInt();
+            if (length != buf.remaining()) return Optional.empty();
+
+            ByteBuffer payload = buf.slice();
+            CRC32 crc32 = new CRC32();
+            crc32.update(payload.duplicate());
+            if (crc32.getValue() != crc) return Optional.empty();
+
+            return Optional.of(decode(payload));
+        }
+    }
+
+    private static FacilityStore decode(ByteBuffer in) {
+        int f = in.getInt();
+        long[] ids = new long[f];
+        String[] names = new String[f];
+        for (int i = 0; i < f; i++) {
+            ids[i] = in.getLong();
+            names[i] = getString(in);
+        }
+
+        int h = in.getInt();
+        String[] codes = new String[h];
+        for (int i = 0; i < h; i++) codes[i] = getString(in);
+        int[] offsets = new int[h + 1];
+        in.asIntBuffer().get(offsets);
+        in.position(in.position() + 4 * offsets.length);
+
+        int[] facilities = new int[in.getInt()];
+        in.asIntBuffer().get(facilities);
+        in.position(in.position() + 4 * facilities.length);
+
+        return new FacilityStore(codes, offsets, facilities, ids, names);
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /* ---------- Yazma ---------- */
+
+    /** Writes atomically (temp file + move) so readers never see a partial snapshot. */
+    static void write(FacilityStore store, Path file, long sourceChecksum) throws IOException {
+        ByteBuffer payload = encode(store);
+
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(sourceChecksum)
+                .putLong(crc32.getValue())
+                .putInt(payload.remaining())
+                .flip();
+
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) ch.write(header);
+            while (payload.hasRemaining()) ch.write(payload);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static ByteBuffer encode(FacilityStore store) {
+        long[] ids = store.rawFacilityIds();
+        String[] names = store.rawFacilityNames();
+        String[] codes = store.rawHotelCodes();
+        int[] offsets = store.rawOffsets();
+        int[] facilities = store.rawFacilities();
+
+        byte[][] nameBytes = utf8(names);
+        byte[][] codeBytes = utf8(codes);
+
+        int size = 4 + ids.length * 8 + bytes(nameBytes)
+                 + 4 + bytes(codeBytes) + offsets.length * 4
+                 + 4 + facilities.length * 4;
+
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            out.putLong(ids[i]);
+            out.putInt(nameBytes[i].length).put(nameBytes[i]);
+        }
+        out.putInt(codes.length);
+        for (byte[] code : codeBytes) out.putInt(code.length).put(code);
+        for (int o : offsets) out.putInt(o);
+        out.putInt(facilities.length);
+        for (int fi : facilities) out.putInt(fi);
+        return out.flip();
+    }
+
+    private static byte[][] utf8(String[] strings) {
+        byte[][] out = new byte[strings.length][];
+        for (int i = 0; i < strings.length; i++) out[i] = strings[i].getBytes(StandardCharsets.UTF_8);
+        return out;
+    }
+
+    private static int bytes(byte[][] strings) {
+        int n = 0;
+        for (byte[] s : strings) n += 4 + s.length;
+        return n;
+    }
+}
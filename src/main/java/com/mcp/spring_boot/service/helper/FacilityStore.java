@@ -0,0 +1,213 @@
+package com.mcp.spring_boot.service.helper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Immutable, compact hotel → facility table.
+ *
+ * <p>Layout (CSR):</p>
+ * <pre>
+ *   hotelCodes[h]                      sorted, normalized hotel codes
+ *   facilities[offsets[h] .. offsets[h+1])  dense facility indexes of hotel h
+ *   facilityIds[f] / facilityNames[f]  dense facility table, sorted by id
+ * </pre>
+ * <p>No boxed ids and no per-hotel lists; lookups are a binary search plus an
+ * array slice.</p>
+ */
+public final class FacilityStore {
+
+    public static final FacilityStore EMPTY = new Builder().build();
+
+    // rendered listings kept per dataset; enough for the hotels people actually ask about
+    static final int MAX_LISTINGS = 4096;
+
+    private final String[] hotelCodes;
+    private final int[] offsets;
+    private final int[] facilities;
+    private final long[] facilityIds;
+    private final String[] facilityNames;
+
+    // derived look-ups, built by buildIndexes() before the store is published; live and die with this dataset
+    private volatile HotelCodeMatcher matcher;
+    private volatile FacilityHotelIndex reverseIndex;
+    // hotel index -> "- name\n" lines, rendered on a facility check; the most used MAX_LISTINGS are kept
+    private final Cache<Integer, String> listings;
+
+    /** Raw arrays, as produced by {@link Builder} or read back by {@link FacilitySnapshot}. */
+    FacilityStore(String[] hotelCodes, int[] offsets, int[] facilities,
+                          long[] facilityIds, String[] facilityNames) {
+        this.hotelCodes = hotelCodes;
+        this.offsets = offsets;
+        this.facilities = facilities;
+        this.facilityIds = facilityIds;
+        this.facilityNames = facilityNames;
+        this.listings = Caffeine.newBuilder().maximumSize(Math.min(MAX_LISTINGS, hotelCodes.length)).build();
+    }
+
+    /**
+     * Builds the hotel-code matcher and the facility → hotels index now, on the
+     * calling thread. The loader calls this before publishing the store, so
+     * requests against a freshly swapped dataset never wait for an index build.
+     */
+    FacilityStore buildIndexes() {
+        matcher();
+        reverseIndex();
+        return this;
+    }
+
+    /* ---------- Lookup ---------- */
+
+    /** @return dense hotel index for a normalized code, or a negative value */
+    public int hotelIndex(String normalizedCode) {
+        return normalizedCode == null ? -1 : Arrays.binarySearch(hotelCodes, normalizedCode);
+    }
+
+    /** Facility names of a hotel as a read-only view over the store; empty if unknown. */
+    public List<String> facilityNames(String normalizedCode) {
+        int h = hotelIndex(normalizedCode);
+        if (h < 0 || offsets[h] == offsets[h + 1]) return List.of();
+        return new NameSlice(offsets[h], offsets[h + 1]);
+    }
+
+    public int hotelCount() {
+        return hotelCodes.length;
+    }
+
+    public int facilityCount() {
+        return facilityIds.length;
+    }
+
+    public String hotelCode(int hotelIndex) {
+        return hotelCodes[hotelIndex];
+    }
+
+    /** Read-only view over all normalized hotel codes, sorted. */
+    public List<String> hotelCodes() {
+        return Collections.unmodifiableList(Arrays.asList(hotelCodes));
+    }
+
+    /** Approximate hotel-code matcher over this dataset; built here only if {@link #buildIndexes} was skipped. */
+    HotelCodeMatcher matcher() {
+        HotelCodeMatcher m = matcher;
+        if (m == null) matcher = m = new HotelCodeMatcher(hotelCodes());      // racing builds are equal
+        return m;
+    }
+
+    /** Facility → hotels index of this dataset; built here only if {@link #buildIndexes} was skipped. */
+    FacilityHotelIndex reverseIndex() {
+        FacilityHotelIndex r = reverseIndex;
+        if (r == null) reverseIndex = r = new FacilityHotelIndex(this);       // racing builds are equal
+        return r;
+    }
+
+    /**
+     * Facility names of hotel {@code h} as {@code "- name\n"} lines; empty if it
+     * has none. Rendered on first use and kept in a cache of at most
+     * {@link #MAX_LISTINGS} hotels that belongs to this dataset; a reload starts
+     * from a new, empty one.
+     */
+    String facilityListing(int h) {
+        return listings.get(h, this::renderListing);
+    }
+
+    /** Listings currently cached, once pending evictions have run; for tests. */
+    long cachedListings() {
+        listings.cleanUp();
+        return listings.estimatedSize();
+    }
+
+    private String renderListing(int h) {
+        int length = 0;
+        for (int i = offsets[h]; i < offsets[h + 1]; i++) length += facilityNames[facilities[i]].length() + 3;
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = offsets[h]; i < offsets[h + 1]; i++) sb.append("- ").append(facilityNames[facilities[i]]).append('\n');
+        return sb.toString();
+    }
+
+    /* ---------- Raw access for FacilitySnapshot ---------- */
+    String[] rawHotelCodes()    { return hotelCodes; }
+    int[]    rawOffsets()       { return offsets; }
+    int[]    rawFacilities()    { return facilities; }
+    long[]   rawFacilityIds()   { return facilityIds; }
+    String[] rawFacilityNames() { return facilityNames; }
+
+    private final class NameSlice extends AbstractList<String> implements RandomAccess {
+        private final int from;
+        private final int to;
+
+        NameSlice(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= to - from) throw new IndexOutOfBoundsException(index);
+            return facilityNames[facilities[from + index]];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    /* ---------- Build ---------- */
+
+    /** Collects rows while a dataset is parsed; not thread-safe. */
+    public static final class Builder {
+        private final Map<Long, String> names = new HashMap<>();
+        private final Map<String, long[]> hotels = new HashMap<>();
+
+        public Builder facility(long id, String name) {
+            names.put(id, name);
+            return this;
+        }
+
+        /** Later rows for the same code replace earlier ones. */
+        public Builder hotel(String normalizedCode, long[] facilityIds) {
+            hotels.put(normalizedCode, facilityIds);
+            return this;
+        }
+
+        public int facilityCount() {
+            return names.size();
+        }
+
+        public int hotelCount() {
+            return hotels.size();
+        }
+
+        public FacilityStore build() {
+            long[] ids = names.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            String[] idNames = new String[ids.length];
+            for (int f = 0; f < ids.length; f++) idNames[f] = names.get(ids[f]);
+
+            String[] codes = hotels.keySet().toArray(String[]::new);
+            Arrays.sort(codes);
+
+            int[] offsets = new int[codes.length + 1];
+            int[] flat = new int[hotels.values().stream().mapToInt(a -> a.length).sum()];
+            int n = 0;
+            for (int h = 0; h < codes.length; h++) {
+                offsets[h] = n;
+                for (long id : hotels.get(codes[h])) {
+                    int f = Arrays.binarySearch(ids, id);
+                    if (f >= 0) flat[n++] = f;                  // ids without a name are dropped
+                }
+            }
+            offsets[codes.length] = n;
+
+            return new FacilityStore(codes, offsets, Arrays.copyOf(flat, n), ids, idNames);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.mcp.spring_boot.service.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Approximate hotel-code matcher backed by a bigram inverted index.
+ *
+ * <p>Hotel codes are random-looking hex strings, so every pair is roughly the
+ * same (large) edit distance apart and metric trees prune poorly. Instead we
+ * use the q-gram lemma: if {@code ed(a, b) ≤ k} then {@code a} and {@code b}
+ * share at least {@code max(|a|,|b|) - q + 1 - k·q} q-grams. Counting shared
+ * bigrams through the index gives every code a lower bound on its distance;
+ * codes are then verified in lower-bound order with a bounded Levenshtein
+ * and the search stops once no remaining bound can beat the k-th best.</p>
+ */
+final class HotelCodeMatcher {
+
+    private static final int Q = 2;
+
+    private final String[] codes;
+    // bigram -> indexes of codes containing it (once per occurrence)
+    private final Map<Integer, int[]> postings;
+    private final int maxLength;
+
+    /** @param codes distinct codes */
+    HotelCodeMatcher(List<String> codes) {
+        this.codes = codes.toArray(String[]::new);
+
+        Map<Integer, int[]> lists = new HashMap<>();
+        Map<Integer, Integer> sizes = new HashMap<>();
+        int max = 0;
+        for (int i = 0; i < this.codes.length; i++) {
+            String c = this.codes[i];
+            max = Math.max(max, c.length());
+            for (int p = 0; p + Q <= c.length(); p++) {
+                int g = gram(c, p);
+                int n = sizes.merge(g, 1, Integer::sum);
+                int[] list = lists.computeIfAbsent(g, k -> new int[8]);
+                if (n > list.length) lists.put(g, list = Arrays.copyOf(list, list.length * 2));
+                list[n - 1] = i;
+            }
+        }
+        lists.replaceAll((g, list) -> Arrays.copyOf(list, sizes.get(g)));
+        this.postings = lists;
+        this.maxLength = max;
+    }
+
+    private static int gram(String s, int at) {
+        return s.charAt(at) << 16 | s.charAt(at + 1);
+    }
+
+    /**
+     * @param maxDistance upper bound on the edit distance of returned codes
+     * @return up to {@code k} codes closest to {@code input}, nearest first (ties by code)
+     */
+    List<String> closest(String input, int k, int maxDistance) {
+        if (codes.length == 0 || k <= 0) return List.of();
+
+        // ---------- 1. shared bigram counts ----------
+        int[] shared = new int[codes.length];
+        int[] touched = new int[64];
+        int touchedCount = 0;
+        int grams = Math.max(0, input.length() - Q + 1);
+        int[] seen = new int[grams];
+        int distinct = 0;
+        outer:
+        for (int p = 0; p < grams; p++) {
+            int g = gram(input, p);
+            for (int s = 0; s < distinct; s++) if (seen[s] == g) continue outer;
+            seen[distinct++] = g;
+            int[] list = postings.get(g);
+            if (list == null) continue;
+            for (int i : list) {
+                if (shared[i]++ == 0) {
+                    if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount * 2);
+                    touched[touchedCount++] = i;
+                }
+            }
+        }
+
+        // ---------- 2. bucket candidates by distance lower bound ----------
+        int buckets = Math.max(input.length(), maxLength) + 1;
+        int radius = Math.min(maxDistance, buckets - 1);          // no distance exceeds the longer length
+
+        // a code sharing no bigram is at least this far away; if that is beyond
+        // the radius only the touched codes can qualify
+        boolean all = ceilDiv(input.length() - Q + 1, Q) <= radius;
+        int candidates = all ? codes.length : touchedCount;
+
+        int[] bound = new int[candidates];
+        int[] bucketSize = new int[buckets];
+        for (int c = 0; c < candidates; c++) {
+            int i = all ? c : touched[c];
+            int longest = Math.max(input.length(), codes[i].length());
+            int lb = Math.max(Math.abs(input.length() - codes[i].length()),
+                              ceilDiv(longest - Q + 1 - shared[i], Q));
+            bound[c] = Math.min(lb, buckets - 1);
+            bucketSize[bound[c]]++;
+        }
+        int[] start = new int[buckets + 1];
+        for (int b = 0; b < buckets; b++) start[b + 1] = start[b] + bucketSize[b];
+        int[] order = new int[candidates];
+        int[] fill = Arrays.copyOf(start, buckets);
+        for (int c = 0; c < candidates; c++) order[fill[bound[c]]++] = all ? c : touched[c];
+
+        // ---------- 3. verify in bound order, stop when bounds exceed radius ----------
+        PriorityQueue<int[]> best = new PriorityQueue<>(k + 1, (a, b) ->
+                a[0] != b[0] ? Integer.compare(b[0], a[0]) : codes[b[1]].compareTo(codes[a[1]]));
+        int[][] rows = {new int[buckets + 1], new int[buckets + 1]};
+
+        for (int b = 0; b < buckets && b <= radius; b++) {
+            for (int o = start[b]; o < start[b + 1]; o++) {
+                int i = order[o];
+                int d = boundedLevenshtein(input, codes[i], radius, rows);
+                if (d > radius) continue;
+                best.offer(new int[] {d, i});
+                if (best.size() > k) best.poll();
+                if (best.size() == k) radius = Math.min(radius, best.peek()[0]);
+            }
+        }
+
+        List<int[]> sorted = new ArrayList<>(best);
+        sorted.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : codes[a[1]].compareTo(codes[b[1]]));
+        List<String> result = new ArrayList<>(sorted.size());
+        for (int[] hit : sorted) result.add(codes[hit[1]]);
+        return result;
+    }
+
+    private static int ceilDiv(int a, int b) {
+        return a <= 0 ? 0 : (a + b - 1) / b;
+    }
+
+    /**
+     * Two-row Levenshtein that gives up as soon as a whole row exceeds
+     * {@code limit}; then returns {@code limit + 1}.
+     */
+    private static int boundedLevenshtein(String a, String b, int limit, int[][] rows) {
+        if (Math.abs(a.length() - b.length()) > limit) return limit + 1;
+        int[] prev = rows[0];
+        int[] cur  = rows[1];
+        for (int j = 0; j <= b.length(); j++) prev[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                cur[j] = Math.min(Math.min(cur[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                rowMin = Math.min(rowMin, cur[j]);
+            }
+            if (rowMin > limit) return limit + 1;
+            int[] tmp = prev; prev = cur; cur = tmp;
+        }
+        return Math.min(prev[b.length()], limit + 1);
+    }
+}
@@ -1,41 +1,160 @@
 package com.mcp.spring_boot.service.helper;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.usermodel.DataFormatter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import java.util.zip.CRC32;
 
+/**
+ * Loads hotel → facility data from the two spreadsheets into an immutable
+ * {@link FacilityStore}.
+ *
+ * <p>With {@code api.facility-data.watch=true} the sources are polled and, when
+ * they change, a new store is built in the background and swapped in with a
+ * single volatile write: readers never block and never see a half-loaded
+ * dataset. The store's look-up indexes are built on the loading thread before
+ * that write. A reload that fails keeps the current store.</p>
+ */
 @Component
 public class HotelFacilityDataLoader {
 
     /* ---------- Sabitler ---------- */
     private static final Logger LOG = LoggerFactory.getLogger(HotelFacilityDataLoader.class);
-    private static final String HOTELS_FILE     = "hotels_with_facilities.xlsx";
-    private static final String FACILITIES_FILE = "facilities.xlsx";
 
     private static final Pattern DIGITS = Pattern.compile("\\d+");      // sadece rakamları çek
     private static final DataFormatter FMT = new DataFormatter(Locale.US);
 
     /* ---------- Veri yapıları ---------- */
-    // hotelCode  -> [facilityId, …]
-    private final Map<String, List<Long>> hotelFacilities = new HashMap<>();
+    // hotelCode -> [facilityName, …]  (sıkıştırılmış, bkz. FacilityStore); reload'da bütün olarak değişir
+    private volatile FacilityStore store = FacilityStore.EMPTY;
+    private volatile long loadedChecksum;
 
-    // facilityId -> facilityName
-    private final Map<Long, String> facilityNames = new HashMap<>();
+    private final Resource hotelsFile;
+    private final Resource facilitiesFile;
+    private final boolean watch;
+    // xlsx'ten üretilen ikili kopya; boşsa snapshot kapalı
+    private final String snapshotPath;
+    private final MeterRegistry meterRegistry;
+
+    public HotelFacilityDataLoader(@Value("${api.facility-data.hotels:classpath:hotels_with_facilities.xlsx}") Resource hotelsFile,
+                                   @Value("${api.facility-data.facilities:classpath:facilities.xlsx}") Resource facilitiesFile,
+                                   @Value("${api.facility-data.watch:false}") boolean watch,
+                                   @Value("${api.facility-snapshot.path:}") String snapshotPath,
+                                   MeterRegistry meterRegistry) {
+        this.hotelsFile = hotelsFile;
+        this.facilitiesFile = facilitiesFile;
+        this.watch = watch;
+        this.snapshotPath = snapshotPath;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("facility.data.hotels", this, l -> l.store.hotelCount())
+             .description("Hotels in the active facility dataset")
+             .register(meterRegistry);
+        Gauge.builder("facility.data.facilities", this, l -> l.store.facilityCount())
+             .description("Facility names in the active facility dataset")
+             .register(meterRegistry);
+    }
 
     /* ---------- Yükleme ---------- */
     @PostConstruct
     public void loadData() {
-        loadFacilities();
-        loadHotels();
-        LOG.info("✅  Loaded {} facilities, {} hotels.", facilityNames.size(), hotelFacilities.size());
+        long start = System.nanoTime();
+        Path snapshot = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        long checksum = sourceChecksum();
+
+        FacilityStore loaded = snapshot == null ? null : readSnapshot(snapshot, checksum);
+        String source = "snapshot";
+        if (loaded == null) {
+            FacilityStore.Builder builder = new FacilityStore.Builder();
+            boolean complete = loadFacilities(builder) & loadHotels(builder);
+            loaded = builder.build();
+            source = "xlsx";
+            if (snapshot != null && complete) writeSnapshot(loaded, snapshot, checksum);
+        }
+        swap(loaded, checksum, source, start);
+    }
+
+    /** Polls the sources and rebuilds the store off the request path when they change. */
+    @Scheduled(initialDelayString = "${api.facility-data.watch-interval:PT1M}",
+               fixedDelayString   = "${api.facility-data.watch-interval:PT1M}")
+    public void reloadIfChanged() {
+        if (!watch) return;
+
+        long checksum = sourceChecksum();
+        if (checksum == -1 || checksum == loadedChecksum) return;
+
+        long start = System.nanoTime();
+        LOG.info("🔄  Facility sources changed, reloading");
+        FacilityStore.Builder builder = new FacilityStore.Builder();
+        if (!(loadFacilities(builder) & loadHotels(builder))) {
+            LOG.error("❌  Facility reload failed, keeping current dataset");
+            return;
+        }
+        FacilityStore loaded = builder.build();
+        if (!snapshotPath.isBlank()) writeSnapshot(loaded, Path.of(snapshotPath), checksum);
+        swap(loaded, checksum, "xlsx", start);
+    }
+
+    private void swap(FacilityStore loaded, long checksum, String source, long startNanos) {
+        store = loaded.buildIndexes();                              // indexes first, so readers never build them
+        loadedChecksum = checksum;
+        long elapsed = System.nanoTime() - startNanos;
+        Timer.builder("facility.data.load")
+             .description("Time to build and activate a facility dataset")
+             .tag("source", source)
+             .register(meterRegistry)
+             .record(elapsed, TimeUnit.NANOSECONDS);
+        LOG.info("✅  Loaded {} facilities, {} hotels from {} in {} ms.", loaded.facilityCount(), loaded.hotelCount(),
+                 source, elapsed / 1_000_000);
+    }
+
+    /* ---------- Snapshot ---------- */
+    private static FacilityStore readSnapshot(Path file, long checksum) {
+        try {
+            FacilityStore s = FacilitySnapshot.read(file, checksum).orElse(null);
+            if (s == null) LOG.info("Facility snapshot {} missing or stale, parsing xlsx", file);
+            return s;
+        } catch (Exception e) {
+            LOG.warn("⚠️  Cannot read facility snapshot {}, parsing xlsx", file, e);
+            return null;
+        }
+    }
+
+    private static void writeSnapshot(FacilityStore s, Path file, long checksum) {
+        try {
+            FacilitySnapshot.write(s, file, checksum);
+        } catch (Exception e) {
+            LOG.warn("⚠️  Cannot write facility snapshot {}", file, e);
+        }
+    }
+
+    /** CRC32 over both spreadsheets; a changed sheet makes the snapshot stale. */
+    private long sourceChecksum() {
+        CRC32 crc = new CRC32();
+        byte[] buf = new byte[64 * 1024];
+        for (Resource file : List.of(facilitiesFile, hotelsFile)) {
+            try (InputStream is = file.getInputStream()) {
+                for (int n; (n = is.read(buf)) > 0; ) crc.update(buf, 0, n);
+            } catch (Exception e) {
+                return -1;                                          // hiçbir snapshot eşleşmez
+            }
+        }
+        return crc.getValue();
     }
 
     /* ---------- Yardımcı metotlar ---------- */
@@ -43,73 +162,66 @@ public class HotelFacilityDataLoader {
         return s == null ? null : s.trim().toLowerCase(Locale.ROOT);
     }
 
-    private static String cellStr(Row row, int col) {            // null-güvenli hücre okuma
-        Cell c = row.getCell(col, Row.MissingCellPolicy.RETURN_BLANK_AS_NULL);
-        if (c == null) return null;
-        String v = FMT.formatCellValue(c);
-        return v == null || v.isBlank() ? null : v.trim();
-    }
-
     /* ---------- facilities.xlsx ---------- */
-    private void loadFacilities() {
-        try (InputStream is = new ClassPathResource(FACILITIES_FILE).getInputStream();
-             Workbook wb   = new XSSFWorkbook(is)) {
+    private boolean loadFacilities(FacilityStore.Builder builder) {
+        try (InputStream is = facilitiesFile.getInputStream()) {
 
-            Sheet sh = wb.getSheetAt(0);
-            for (Row row : sh) {
-                if (row.getRowNum() == 0) continue;                 // başlık
+            XlsxSheetReader.read(is, 2, FMT, (rowNum, cells) -> {
+                if (rowNum == 0) return;                            // başlık
 
-                String idStr = cellStr(row, 0);
-                String name  = cellStr(row, 1);
-                if (idStr == null || name == null) continue;
+                String idStr = cells[0];
+                String name  = cells[1];
+                if (idStr == null || name == null) return;
 
                 try {
                     long id = Long.parseLong(idStr.replace(".0", ""));
-                    facilityNames.put(id, name);
+                    builder.facility(id, name);
                 } catch (NumberFormatException ex) {
-                    LOG.warn("⚠️  Bad facility id '{}' at row {}", idStr, row.getRowNum());
+                    LOG.warn("⚠️  Bad facility id '{}' at row {}", idStr, rowNum);
                 }
-            }
+            });
+            return true;
         } catch (Exception e) {
-            LOG.error("❌  Failed to load {}", FACILITIES_FILE, e);
+            LOG.error("❌  Failed to load {}", facilitiesFile, e);
+            return false;
         }
     }
 
     /* ---------- hotels_with_facilities.xlsx ---------- */
-    private void loadHotels() {
-        try (InputStream is = new ClassPathResource(HOTELS_FILE).getInputStream();
-             Workbook wb   = new XSSFWorkbook(is)) {
+    private boolean loadHotels(FacilityStore.Builder builder) {
+        try (InputStream is = hotelsFile.getInputStream()) {
 
-            Sheet sh = wb.getSheetAt(0);
-            int skippedIds = 0;
+            int[] skippedIds = {0};
 
-            for (Row row : sh) {
-                if (row.getRowNum() == 0) continue;                 // başlık
+            XlsxSheetReader.read(is, 3, FMT, (rowNum, cells) -> {
+                if (rowNum == 0) return;                            // başlık
 
-                String code = cellStr(row, 0);                      // hotelId
-                String facs = cellStr(row, 2);                      // facilities
-                if (code == null) continue;
+                String code = cells[0];                             // hotelId
+                String facs = cells[2];                             // facilities
+                if (code == null) return;
 
-                List<Long> ids = parseFacilityIds(facs);
-                skippedIds += facs == null ? 0 : countBadIds(facs) - ids.size();
-                hotelFacilities.put(norm(code), ids);
-            }
+                long[] ids = parseFacilityIds(facs);
+                skippedIds[0] += facs == null ? 0 : countBadIds(facs) - ids.length;
+                builder.hotel(norm(code), ids);
+            });
 
-            if (skippedIds > 0) {
-                LOG.warn("⚠️  Skipped {} malformed facility IDs while loading {}", skippedIds, HOTELS_FILE);
+            if (skippedIds[0] > 0) {
+                LOG.warn("⚠️  Skipped {} malformed facility IDs while loading {}", skippedIds[0], hotelsFile);
             }
+            return true;
         } catch (Exception e) {
-            LOG.error("❌  Failed to load {}", HOTELS_FILE, e);
+            LOG.error("❌  Failed to load {}", hotelsFile, e);
+            return false;
         }
     }
 
     /* ---------- ID ayrıştırma ---------- */
-    private static List<Long> parseFacilityIds(String raw) {
-        if (raw == null) return List.of();
+    private static long[] parseFacilityIds(String raw) {
+        if (raw == null) return new long[0];
         return DIGITS.matcher(raw)
                      .results()
-                     .map(m -> Long.valueOf(m.group()))
-                     .toList();   // Java 21
+                     .mapToLong(m -> Long.parseLong(m.group()))
+                     .toArray();
     }
 
     private static int countBadIds(String raw) {
@@ -117,41 +229,67 @@ public class HotelFacilityDataLoader {
     }
 
     /* ---------- Dış API ---------- */
+    /** Read-only view; names of facility ids missing from facilities.xlsx are skipped. */
     public List<String> getFacilityNamesForHotel(String hotelCode) {
         if (hotelCode == null) return List.of();
+        return store.facilityNames(norm(hotelCode));
+    }
 
-        List<Long> ids = hotelFacilities.get(norm(hotelCode));
-        if (ids == null || ids.isEmpty()) return List.of();
+    /** The same names as ready-made {@code "- name\n"} lines, cached per dataset for the most checked hotels; empty if none. */
+    public String getFacilityListing(String hotelCode) {
+        if (hotelCode == null) return "";
+        FacilityStore s = store;                                    // tek okuma: tutarlı snapshot
+        int h = s.hotelIndex(norm(hotelCode));
+        return h < 0 ? "" : s.facilityListing(h);
+    }
 
-        List<String> names = new ArrayList<>(ids.size());
-        for (Long id : ids) {
-            String n = facilityNames.get(id);
-            if (n != null) names.add(n);
-        }
-        return names;
+    public boolean isKnownHotel(String hotelCode) {
+        return store.hotelIndex(norm(hotelCode)) >= 0;
     }
 
-    /* ---------- (Opsiyonel) Benzer kod bulma ---------- */
-    public String findClosestHotelCode(String input) {
-        String normIn = norm(input);
-        return hotelFacilities.keySet().stream()
-                .min(Comparator.comparingInt(k -> levenshtein(normIn, k)))
-                .orElse("no similar code");
-    }
-
-    /** Mini Levenshtein – Apache commons istemeyen hafif sürüm */
-    private static int levenshtein(String a, String b) {
-        int[] prev = new int[b.length() + 1];
-        int[] cur  = new int[b.length() + 1];
-        for (int j = 0; j <= b.length(); j++) prev[j] = j;
-        for (int i = 1; i <= a.length(); i++) {
-            cur[0] = i;
-            for (int j = 1; j <= b.length(); j++) {
-                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
-                cur[j] = Math.min(Math.min(cur[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+    /** Hotels matching the given facilities; {@code hotelCodes} holds at most {@code limit} codes. */
+    public record FacilitySearchResult(int total, List<String> hotelCodes, List<String> unknownFacilities) {}
+
+    /* ---------- Tesis → otel araması (bkz. FacilityHotelIndex) ---------- */
+    public FacilitySearchResult findHotelsByFacilities(List<String> facilityNames, boolean matchAll, int limit) {
+        FacilityStore s = store;                                    // tek okuma: tutarlı snapshot
+        FacilityHotelIndex.Result r = s.reverseIndex().query(facilityNames, matchAll);
+
+        List<String> codes = new ArrayList<>(Math.min(limit, 64));
+        long[] bits = r.hotels();
+        for (int w = 0; w < bits.length && codes.size() < limit; w++) {
+            for (long word = bits[w]; word != 0 && codes.size() < limit; word &= word - 1) {
+                codes.add(s.hotelCode((w << 6) + Long.numberOfTrailingZeros(word)));
             }
-            int[] tmp = prev; prev = cur; cur = tmp;
         }
-        return prev[b.length()];
+        return new FacilitySearchResult(r.count(), codes, r.unknownFacilities());
+    }
+
+    /** Facility names (case-insensitive) the active dataset does not know; check these before filtering by them. */
+    public List<String> unknownFacilities(List<String> facilityNames) {
+        if (facilityNames == null || facilityNames.isEmpty()) return List.of();
+        return store.reverseIndex().unknown(facilityNames);
+    }
+
+    /** Predicate over hotel codes: true if the hotel has every named facility (one consistent dataset). */
+    public Predicate<String> hotelsHaving(List<String> facilityNames) {
+        FacilityStore s = store;
+        long[] bits = s.reverseIndex().query(facilityNames, true).hotels();
+        return code -> {
+            int h = s.hotelIndex(norm(code));
+            return h >= 0 && (bits[h >>> 6] & 1L << h) != 0;
+        };
+    }
+
+    /* ---------- Benzer kod bulma (bigram indeksi, bkz. HotelCodeMatcher) ---------- */
+    public String findClosestHotelCode(String input) {
+        List<String> hit = findClosestHotelCodes(input, 1, Integer.MAX_VALUE);
+        return hit.isEmpty() ? "no similar code" : hit.get(0);
+    }
+
+    /** Up to {@code k} known codes within {@code maxDistance} edits of {@code input}, nearest first. */
+    public List<String> findClosestHotelCodes(String input, int k, int maxDistance) {
+        if (input == null) return List.of();
+        return store.matcher().closest(norm(input), k, maxDistance);
     }
 }
@@ -1,24 +1,37 @@
 package com.mcp.spring_boot.service.helper;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mcp.spring_boot.config.UpstreamObservationConvention;
+import com.mcp.spring_boot.config.WebClientConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.*;
-import java.util.stream.Stream;
 
 /**
  * Helper for hotel-related look-ups that do not belong in the main service.
  *
  * <p>Current feature: fetch the first <em>CITY</em>-type <code>locationId</code>
  * from the autocomplete API by free-text query (e.g., “Kayseri”).</p>
+ *
+ * <p>Cities present in the offline {@link CityLocationIndex} are answered
+ * locally, and every city autocomplete resolves is taught to it. Everything else is cached per {@link CityNames#normalize normalized} query.
+ * Unknown cities are cached too (with a shorter TTL), concurrent look-ups of the
+ * same city share one upstream call, and failed calls are never cached.</p>
  */
 @Component
-@SuppressWarnings("unchecked")
 public class HotelSearchServiceMethods {
 
     private static final Logger log = LoggerFactory.getLogger(HotelSearchServiceMethods.class);
@@ -26,92 +39,119 @@ public class HotelSearchServiceMethods {
     private static final String AUTOCOMPLETE_PATH =
             "/content-service/autocomplete/search";
 
-    private final WebClient webClient;
+    private static final AutocompleteParser PARSER = new AutocompleteParser(new JsonFactory());
 
-    public HotelSearchServiceMethods(WebClient webClient) {
+    private final WebClient webClient;
+    private final CityLocationIndex cityIndex;
+    private final UpstreamResilience resilience;
+    private final Duration timeout;
+    private final int autocompleteSize;
+
+    // normalized query -> locationId (empty = known miss)
+    private final AsyncCache<String, Optional<Integer>> locationCache;
+
+    public HotelSearchServiceMethods(WebClient webClient,
+                                     CityLocationIndex cityIndex,
+                                     UpstreamResilience resilience,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${api.location-cache.ttl:24h}") Duration ttl,
+                                     @Value("${api.location-cache.negative-ttl:10m}") Duration negativeTtl,
+                                     @Value("${api.location-cache.max-size:10000}") long maxSize,
+                                     @Value("${api.http.autocomplete-timeout:3s}") Duration timeout,
+                                     @Value("${api.autocomplete.size:10}") int autocompleteSize) {
         this.webClient = webClient;
+        this.cityIndex = cityIndex;
+        this.resilience = resilience;
+        this.timeout = timeout;
+        this.autocompleteSize = autocompleteSize;
+        this.locationCache = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfter(new LocationExpiry(ttl, negativeTtl))
+                        .recordStats()
+                        .<String, Optional<Integer>>buildAsync(),
+                "location-id");
     }
 
     /**
      * Retrieves the first CITY-type location ID that matches the given query.
      *
      * @param query city name or search keyword (case-insensitive)
-     * @return the numeric location ID, or {@code null} if none found or on error
+     * @return the numeric location ID, or an empty {@link Mono} if the city is not found;
+     *         upstream failures and local rejections (breaker open, bulkhead full) are signalled
+     *         as errors so that the caller can tell "no such city" from "service unavailable"
      */
-    public Integer getLocationIdByQuery(String query) {
+    public Mono<Integer> getLocationIdByQuery(String query) {
+        String key = CityNames.normalize(query);
+
+        Integer indexed = cityIndex.lookup(key);
+        if (indexed != null) {
+            log.debug("→ [CityIndex] locationId={} for query='{}'", indexed, query);
+            return Mono.just(indexed);
+        }
+
+        // suppressCancel: one caller giving up must not cancel the shared in-flight call
+        return Mono.fromFuture(() -> locationCache.get(key, (k, executor) -> fetchLocationId(query).toFuture()), true)
+                   .flatMap(Mono::justOrEmpty)
+                   .doOnNext(result -> log.debug("→ [Autocomplete] selected locationId={} for query='{}'", result, query))
+                   .onErrorResume(WebClientResponseException.NotFound.class, ex -> {
+                       log.debug("→ [Autocomplete] 404 for query='{}', treating as unknown city", query);
+                       return Mono.empty();
+                   })
+                   .doOnError(UpstreamResilience::isRejected,
+                              ex -> log.warn("✖ [Autocomplete] Skipped, upstream guarded: {}", ex.getMessage()))
+                   .doOnError(ex -> !UpstreamResilience.isRejected(ex),
+                              ex -> log.error("✖ [Autocomplete] Failed for query='{}': {}", query, ex.toString()));
+    }
+
+    /** Upstream call; errors propagate so that they are not cached. */
+    private Mono<Optional<Integer>> fetchLocationId(String query) {
 
         // ---------- 1. Build request body ----------
         Map<String, Object> requestBody = Map.of(
                 "query", query,
                 "language", "tr",
-                "size", 30
+                "size", autocompleteSize
         );
 
         log.debug("⌕ [Autocomplete] POST {} – body: {}", AUTOCOMPLETE_PATH, requestBody);
 
-        try {
-            // ---------- 2. Execute HTTP call ----------
-            Map<String, Object> response =
-                    webClient.post()
-                             .uri(AUTOCOMPLETE_PATH)
-                             .bodyValue(requestBody)
-                             .retrieve()
-                             // log non-2xx responses with body content
-                             .onStatus(HttpStatusCode::isError, r ->
-                                     r.bodyToMono(String.class)
-                                      .flatMap(body -> {
-                                          log.error("✖ [Autocomplete] {} – body: {}",
-                                                    r.statusCode(), body);
-                                          return Mono.error(new IllegalStateException(
-                                                  "Autocomplete returned non-success status"));
-                                      }))
-                             .bodyToMono(Map.class)
-                             .doOnNext(res -> log.debug("✓ [Autocomplete] raw response: {}", res))
-                             .block();
-
-            // ---------- 3. Validate & parse ----------
-            if (response == null || !response.containsKey("items")) {
-                log.warn("⚠ [Autocomplete] Missing 'items' array in response");
-                return null;
-            }
-
-            List<Map<String, Object>> items =
-                    (List<Map<String, Object>>) response.get("items");
-
-            Optional<Integer> firstCityId =
-                    items.stream()
-                         // each item may have a "locations" array
-                         .flatMap(item -> {
-                             List<Map<String, Object>> locations =
-                                     (List<Map<String, Object>>) item.get("locations");
-                             return locations != null
-                                     ? locations.stream()
-                                     : Stream.empty();          // ← never return null Stream
-                         })
-                         .filter(loc -> "CITY".equals(loc.get("locationType")))
-                         .map(loc -> {
-                             try {
-                                 return Integer.valueOf(loc.get("id").toString());
-                             } catch (Exception ex) {
-                                 log.error("⚠ [Autocomplete] Cannot parse location id: {}",
-                                           loc.get("id"), ex);
-                                 return null;                 // skip malformed id
-                             }
-                         })
-                         .filter(Objects::nonNull)
-                         .findFirst();
-
-            Integer result = firstCityId.orElse(null);
-            log.debug("→ [Autocomplete] selected locationId={} for query='{}'", result, query);
-            return result;
-
-        } catch (WebClientResponseException ex) {
-            log.error("✖ [Autocomplete] HTTP error: {} – {}",
-                      ex.getStatusCode(), ex.getResponseBodyAsString(), ex);
-        } catch (Exception ex) {
-            log.error("✖ [Autocomplete] Unexpected error: {}", ex.getMessage(), ex);
+        // ---------- 2. Execute HTTP call (guarded, retried on transient errors) ----------
+        return resilience.autocomplete(() ->
+                webClient.post()
+                        .uri(AUTOCOMPLETE_PATH)
+                        .attribute(UpstreamObservationConvention.PHASE, UpstreamResilience.AUTOCOMPLETE)
+                        .httpRequest(WebClientConfig.responseTimeout(timeout))
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        // log non-2xx responses with body content; the typed exception drives retry/breaker
+                        .onStatus(HttpStatusCode::isError, r ->
+                                r.createException()
+                                 .doOnNext(ex -> log.error("✖ [Autocomplete] {} – body: {}",
+                                                           r.statusCode(), ex.getResponseBodyAsString())))
+                        .bodyToMono(byte[].class))
+                .doOnNext(res -> log.debug("✓ [Autocomplete] {} bytes for query='{}'", res.length, query))
+                // ---------- 3. Validate & parse ----------
+                .map(PARSER::firstCityId)
+                .doOnNext(id -> id.ifPresent(locationId -> cityIndex.learn(query, locationId)));
+    }
+
+    /** Known cities live for {@code ttl}, unknown ones for the shorter {@code negativeTtl}. */
+    private record LocationExpiry(Duration ttl, Duration negativeTtl) implements Expiry<String, Optional<Integer>> {
+
+        @Override
+        public long expireAfterCreate(String key, Optional<Integer> value, long currentTime) {
+            return (value.isPresent() ? ttl : negativeTtl).toNanos();
         }
 
-        return null;
+        @Override
+        public long expireAfterUpdate(String key, Optional<Integer> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<Integer> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,247 @@
+package com.mcp.spring_boot.service.helper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Serves a caller's {@code limit}/{@code offset} window of a location search
+ * by fanning out fixed-size page requests.
+ *
+ * <p>Up to {@code concurrency} pages are in flight at once; results are merged
+ * in page order ({@code flatMapSequential}), and outstanding pages are
+ * cancelled as soon as enough hotels pass the caller's filter or a short page
+ * marks the end of the results. The merged document is the first page with
+ * its hotel list replaced by the collected hotels.</p>
+ *
+ * <p>Each page is read once with Jackson's streaming API, and the caller's
+ * filter is applied in that pass. The envelope around the hotel list and the
+ * hotels that pass are kept as token buffers, never as a tree. If a page after
+ * the first fails, the hotels gathered so far are returned with
+ * {@code "partial": true} at the top level.</p>
+ */
+@Component
+public class SearchPaginator {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchPaginator.class);
+
+    /** Fetches one upstream page. */
+    @FunctionalInterface
+    public interface PageFetcher {
+        Mono<String> fetch(int offset, int limit);
+    }
+
+    /** Top-level flag on a merged response that is missing pages after a failure. */
+    public static final String PARTIAL_FIELD = "partial";
+
+    private final JsonFactory factory;
+    private final int pageSize;
+    private final int concurrency;
+    private final int maxPages;
+
+    public SearchPaginator(ObjectMapper objectMapper,
+                           @Value("${api.search-pagination.page-size:10}") int pageSize,
+                           @Value("${api.search-pagination.concurrency:4}") int concurrency,
+                           @Value("${api.search-pagination.max-pages:10}") int maxPages) {
+        this.factory = objectMapper.getFactory();
+        this.pageSize = Math.max(1, pageSize);
+        this.concurrency = Math.max(1, concurrency);
+        this.maxPages = Math.max(1, maxPages);
+    }
+
+    /**
+     * @param keep    hotels that count towards {@code limit}; others are left out of the merged list
+     * @param filters whether {@code keep} actually rejects hotels, so more pages than
+     *                {@code limit / pageSize} may be needed
+     * @return the merged response, or the first page unchanged if it has no recognisable hotel list
+     */
+    public Mono<String> fetch(int offset, int limit, Predicate<String> keep, boolean filters, PageFetcher fetcher) {
+        if (!filters && limit <= pageSize) {
+            return fetcher.fetch(offset, limit);
+        }
+        int pages = filters ? Math.max(maxPages, ceilDiv(limit, pageSize))
+                            : ceilDiv(limit, pageSize);
+
+        return Flux.defer(() -> {
+                    int[] collected = {0};
+                    return Flux.range(0, pages)
+                            .flatMapSequential(i -> page(i, offset + i * pageSize, keep, fetcher), concurrency, 1)
+                            .takeUntil(page -> {
+                                collected[0] += page.kept.size();
+                                return page.last || collected[0] >= limit;
+                            });
+                })
+                .collectList()
+                .map(fetched -> merge(fetched, limit));
+    }
+
+    private Mono<Page> page(int index, int offset, Predicate<String> keep, PageFetcher fetcher) {
+        Mono<Page> page = fetcher.fetch(offset, pageSize).map(body -> parse(body, keep));
+        if (index == 0) return page;                    // first page errors go to the caller as before
+        return page.onErrorResume(e -> {
+            log.warn("Search page at offset {} failed, returning earlier pages as partial: {}", offset, e.getMessage());
+            return Mono.just(Page.FAILED);
+        });
+    }
+
+    private Page parse(String body, Predicate<String> keep) {
+        Split split = new Split(keep);
+        try (JsonParser p = factory.createParser(body)) {
+            JsonToken first = p.nextToken();
+            if (first != JsonToken.START_OBJECT && first != JsonToken.START_ARRAY) return Page.unparsed(body);
+            split.out = split.head = new TokenBuffer(p);
+            split.copy(p);
+            if (p.nextToken() != null) return Page.unparsed(body);     // trailing content: not a JSON document
+        } catch (IOException e) {
+            return Page.unparsed(body);
+        }
+        if (split.tail == null) return Page.unparsed(body);            // no hotel list
+        return new Page(body, split.head, split.kept, split.tail, split.hotels < pageSize, false);
+    }
+
+    private String merge(List<Page> pages, int limit) {
+        Page first = pages.get(0);
+        if (first.head == null) return first.body;
+
+        boolean partial = pages.get(pages.size() - 1).failed();
+        int merged = 0;
+        StringWriter out = new StringWriter(first.body.length());
+        try (JsonGenerator g = factory.createGenerator(out);
+             JsonParser head = first.head.asParser()) {
+            JsonToken root = head.nextToken();
+            g.copyCurrentEvent(head);
+            if (partial && root == JsonToken.START_OBJECT) g.writeBooleanField(PARTIAL_FIELD, true);
+            while (head.nextToken() != null) g.copyCurrentEvent(head);
+            for (Page page : pages) {
+                for (TokenBuffer hotel : page.kept) {
+                    if (merged == limit) break;
+                    hotel.serialize(g);
+                    merged++;
+                }
+            }
+            first.tail.serialize(g);
+        } catch (IOException e) {
+            return first.body;
+        }
+        log.debug("Merged {} search pages into {} hotels{}", pages.size(), merged, partial ? ", partial" : "");
+        return out.toString();
+    }
+
+    /**
+     * Streams one page into {@code head} up to and including the opening of its
+     * hotel list, and into {@code tail} from its closing on. The list's elements
+     * go to {@code kept} if they pass the filter. Hotels found outside that list
+     * are filtered in place.
+     */
+    private static final class Split {
+        private final Predicate<String> keep;
+        TokenBuffer head;
+        TokenBuffer tail;                               // null until the hotel list has been read
+        JsonGenerator out;
+        final List<TokenBuffer> kept = new ArrayList<>();
+        int hotels;
+
+        Split(Predicate<String> keep) {
+            this.keep = keep;
+        }
+
+        /** Copies the value at the parser's current token to {@code out}, splitting off the hotel list. */
+        void copy(JsonParser p) throws IOException {
+            switch (p.currentToken()) {
+                case START_OBJECT -> {
+                    out.writeStartObject();
+                    while (p.nextToken() == JsonToken.FIELD_NAME) {
+                        out.writeFieldName(p.currentName());
+                        p.nextToken();
+                        copy(p);
+                    }
+                    out.writeEndObject();
+                }
+                case START_ARRAY -> {
+                    out.writeStartArray();
+                    boolean list = false;
+                    for (boolean first = true; p.nextToken() != JsonToken.END_ARRAY; first = false) {
+                        TokenBuffer element = new TokenBuffer(p);
+                        element.copyCurrentStructure(p);
+                        String code = p.currentToken() == JsonToken.END_OBJECT ? SearchResultEnricher.hotelCode(element) : null;
+                        if (first && code != null && tail == null) list = true;    // the hotel list, as findHotels picks it
+                        if (list) {
+                            hotels++;
+                            if (code == null || keep.test(code)) kept.add(element);
+                        } else if (code == null) {
+                            try (JsonParser ep = element.asParser()) {
+                                ep.nextToken();
+                                copy(ep);
+                            }
+                        } else if (keep.test(code)) {
+                            element.serialize(out);
+                        }
+                    }
+                    if (list) out = tail = new TokenBuffer(p);
+                    out.writeEndArray();
+                }
+                default -> out.copyCurrentEvent(p);
+            }
+        }
+    }
+
+    /** First array, depth first, whose first element is a hotel object. */
+    static ArrayNode findHotels(JsonNode node) {
+        if (node instanceof ArrayNode array) {
+            if (!array.isEmpty() && hotelCode(array.get(0)) != null) return array;
+            for (JsonNode element : array) {
+                ArrayNode found = findHotels(element);
+                if (found != null) return found;
+            }
+        } else if (node instanceof ObjectNode object) {
+            for (Iterator<JsonNode> it = object.elements(); it.hasNext(); ) {
+                ArrayNode found = findHotels(it.next());
+                if (found != null) return found;
+            }
+        }
+        return null;
+    }
+
+    /** The hotel code of an object carrying one of the hotel code fields, otherwise null. */
+    static String hotelCode(JsonNode hotel) {
+        if (!hotel.isObject()) return null;
+        for (String field : SearchResultEnricher.HOTEL_CODE_FIELDS) {
+            JsonNode code = hotel.get(field);
+            if (code != null && code.isValueNode() && !code.isNull()) return code.asText();
+        }
+        return null;
+    }
+
+    private static int ceilDiv(int a, int b) {
+        return (a + b - 1) / b;
+    }
+
+    /** One streamed page; {@code head} is null when the body has no hotel list. */
+    private record Page(String body, TokenBuffer head, List<TokenBuffer> kept, TokenBuffer tail, boolean last,
+                        boolean failed) {
+        static final Page FAILED = new Page(null, null, List.of(), null, true, true);
+
+        static Page unparsed(String body) {
+            return new Page(body, null, List.of(), null, true, false);
+        }
+    }
+}
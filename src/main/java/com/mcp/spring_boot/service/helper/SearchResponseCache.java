@@ -0,0 +1,134 @@
+package com.mcp.spring_boot.service.helper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mcp.spring_boot.params.LocationHotelSearchRequest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of raw <code>search-by-location</code> responses.
+ *
+ * <p>Keyed on a SHA-256 of the canonical JSON of the built
+ * {@link LocationHotelSearchRequest}; bounded by the total size of cached
+ * bodies rather than entry count. Identical concurrent searches share one
+ * upstream call, and failed calls are never cached; a failed call falls back
+ * to the last good response for up to {@code api.search-cache.stale-ttl}.</p>
+ *
+ * <p>{@code api.search-cache.max-size} is the budget for both caches together:
+ * the stale copies get {@code stale-max-size} of it and fresh responses the
+ * rest. Weights are UTF-16 sizes, so actual heap use stays within the budget
+ * (a body held by both caches is one shared string, counted twice).</p>
+ */
+@Component
+public class SearchResponseCache {
+
+    // sorted properties/map keys so equal requests always hash the same
+    private static final ObjectMapper CANONICAL = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+
+    private static final Logger log = LoggerFactory.getLogger(SearchResponseCache.class);
+
+    private final AsyncCache<String, String> cache;
+    // last good response per key, kept longer and served only when the upstream call fails
+    private final Cache<String, String> stale;
+
+    public SearchResponseCache(MeterRegistry meterRegistry,
+                               @Value("${api.search-cache.ttl:30s}") Duration ttl,
+                               @Value("${api.search-cache.stale-ttl:10m}") Duration staleTtl,
+                               @Value("${api.search-cache.max-size:32MB}") DataSize maxSize,
+                               @Value("${api.search-cache.stale-max-size:8MB}") DataSize staleMaxSize) {
+        if (staleMaxSize.toBytes() < 0 || staleMaxSize.toBytes() >= maxSize.toBytes()) {
+            throw new IllegalArgumentException("api.search-cache.stale-max-size (" + staleMaxSize
+                                               + ") must be less than api.search-cache.max-size (" + maxSize + ")");
+        }
+        this.cache = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder()
+                        .expireAfterWrite(ttl)
+                        .maximumWeight(maxSize.toBytes() - staleMaxSize.toBytes())
+                        .weigher((String key, String body) -> 2 * body.length())   // UTF-16 chars
+                        .recordStats()
+                        .<String, String>buildAsync(),
+                "search-response");
+        this.stale = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder()
+                        .expireAfterWrite(staleTtl)
+                        .maximumWeight(staleMaxSize.toBytes())
+                        .weigher((String key, String body) -> 2 * body.length())
+                        .recordStats()
+                        .<String, String>build(),
+                "search-response-stale");
+
+        weightGauge(meterRegistry, cache.synchronous(), "search-response");
+        weightGauge(meterRegistry, stale, "search-response-stale");
+    }
+
+    private static void weightGauge(MeterRegistry registry, Cache<String, String> cache, String name) {
+        Gauge.builder("cache.weighted.bytes", cache, SearchResponseCache::weightedBytes)
+             .tag("cache", name)
+             .description("Approximate bytes held by cached search responses")
+             .baseUnit("bytes")
+             .register(registry);
+    }
+
+    /** Current weight of {@code cache}; pending evictions are left to Caffeine's own maintenance, not run per scrape. */
+    static long weightedBytes(Cache<String, String> cache) {
+        return cache.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    /** Bytes held by fresh responses once pending evictions have run; for tests. */
+    long weightedBytes() {
+        cache.synchronous().cleanUp();
+        return weightedBytes(cache.synchronous());
+    }
+
+    /**
+     * Returns the cached response for {@code request}, or subscribes to
+     * {@code loader} once and shares its result with concurrent callers.
+     * If the loader fails (upstream down, circuit open…) the last good
+     * response for the same request is served instead, when there is one.
+     */
+    public Mono<String> get(LocationHotelSearchRequest request, Supplier<Mono<String>> loader) {
+        String key = key(request);
+        // suppressCancel: one caller giving up must not cancel the shared in-flight call
+        return Mono.fromFuture(() -> cache.get(key, (k, executor) ->
+                                   loader.get().doOnNext(body -> stale.put(k, body)).toFuture()), true)
+                   .onErrorResume(e -> {
+                       String previous = stale.getIfPresent(key);
+                       if (previous == null) return Mono.error(e);
+                       log.warn("Serving stale search response after upstream failure: {}", e.toString());
+                       return Mono.just(previous);
+                   });
+    }
+
+    static String key(LocationHotelSearchRequest request) {
+        try {
+            byte[] json = CANONICAL.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot build search cache key", e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.mcp.spring_boot.service.helper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Set;
+
+/**
+ * Enriches a <code>search-by-location</code> response with the local facility
+ * data, so agents do not need one facility-check call per hotel. Filtering by
+ * required facilities happens earlier, while {@link SearchPaginator} reads the
+ * pages.
+ *
+ * <p>The response is re-written token by token with Jackson's streaming API.
+ * Only array elements are buffered, one at a time: an element whose top-level
+ * fields carry a hotel code is a hotel and is copied with an added
+ * {@code facilities} array; any other element is descended into, so hotel
+ * lists are found wherever the upstream nests them.</p>
+ */
+@Component
+public class SearchResultEnricher {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchResultEnricher.class);
+
+    // field names that identify a hotel object; "code" alone is too ambiguous (boards, rooms…)
+    static final Set<String> HOTEL_CODE_FIELDS = Set.of("hotelCode", "hotelId");
+    private static final String FACILITIES_FIELD = "facilities";
+
+    private final JsonFactory factory;
+    private final HotelFacilityDataLoader facilityDataLoader;
+
+    public SearchResultEnricher(ObjectMapper objectMapper, HotelFacilityDataLoader facilityDataLoader) {
+        this.factory = objectMapper.getFactory();
+        this.facilityDataLoader = facilityDataLoader;
+    }
+
+    /**
+     * @param embedFacilities add each hotel's facility names as {@code facilities}
+     * @return the rewritten JSON, or {@code json} unchanged if there is nothing to do or it is not JSON
+     */
+    public String apply(String json, boolean embedFacilities) {
+        if (json == null || !embedFacilities) return json;
+
+        Rewrite rewrite = new Rewrite();
+
+        StringWriter out = new StringWriter(json.length());
+        try (JsonParser p = factory.createParser(json);
+             JsonGenerator g = factory.createGenerator(out)) {
+            JsonToken first = p.nextToken();
+            if (first != JsonToken.START_OBJECT && first != JsonToken.START_ARRAY) return json;
+            rewrite.copy(p, g);
+            if (p.nextToken() != null) return json;                 // trailing content: not a JSON document
+        } catch (IOException e) {
+            // upstream error texts are passed through as-is
+            log.debug("Search response is not JSON, returning it unchanged: {}", e.getMessage());
+            return json;
+        }
+        log.debug("Search response: embedded facilities for {} hotels", rewrite.hotels);
+        return out.toString();
+    }
+
+    /** Top-level hotel code field of a buffered object, or {@code null}. */
+    static String hotelCode(TokenBuffer buffer) throws IOException {
+        try (JsonParser bp = buffer.asParser()) {
+            if (bp.nextToken() != JsonToken.START_OBJECT) return null;
+            while (bp.nextToken() == JsonToken.FIELD_NAME) {
+                String name = bp.currentName();
+                JsonToken value = bp.nextToken();
+                if (HOTEL_CODE_FIELDS.contains(name) && value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+                    return bp.getText();
+                }
+                bp.skipChildren();
+            }
+        }
+        return null;
+    }
+
+    private final class Rewrite {
+        int hotels;
+
+        /** Copies the value at the parser's current token, examining array elements. */
+        void copy(JsonParser p, JsonGenerator g) throws IOException {
+            switch (p.currentToken()) {
+                case START_OBJECT -> {
+                    g.writeStartObject();
+                    while (p.nextToken() == JsonToken.FIELD_NAME) {
+                        g.writeFieldName(p.currentName());
+                        p.nextToken();
+                        copy(p, g);
+                    }
+                    g.writeEndObject();
+                }
+                case START_ARRAY -> {
+                    g.writeStartArray();
+                    while (p.nextToken() != JsonToken.END_ARRAY) {
+                        if (p.currentToken() == JsonToken.START_OBJECT) element(p, g);
+                        else copy(p, g);
+                    }
+                    g.writeEndArray();
+                }
+                default -> g.copyCurrentEvent(p);
+            }
+        }
+
+        private void element(JsonParser p, JsonGenerator g) throws IOException {
+            TokenBuffer buffer = new TokenBuffer(p);
+            buffer.copyCurrentStructure(p);
+
+            String code = hotelCode(buffer);
+            try (JsonParser bp = buffer.asParser()) {
+                bp.nextToken();
+                if (code == null) {                                 // not a hotel: look inside
+                    copy(bp, g);
+                    return;
+                }
+                hotels++;
+                g.writeStartObject();
+                while (bp.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = bp.currentName();
+                    bp.nextToken();
+                    if (FACILITIES_FIELD.equals(name)) {            // replaced below
+                        bp.skipChildren();
+                        continue;
+                    }
+                    g.writeFieldName(name);
+                    g.copyCurrentStructure(bp);
+                }
+                g.writeArrayFieldStart(FACILITIES_FIELD);
+                for (String facility : facilityDataLoader.getFacilityNamesForHotel(code)) g.writeString(facility);
+                g.writeEndArray();
+                g.writeEndObject();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.mcp.spring_boot.service.helper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Folds the per-city answers of a multi-city search into one document:
+ * <pre>
+ * { "results": [ { "city": "Bodrum", "checkIn": …, "checkOut": …, "hotels": [ … ] },
+ *                { "city": "Fethiye", "checkIn": …, "checkOut": …, "error": "…" } ],
+ *   "failed": 1 }
+ * </pre>
+ *
+ * <p>Only each response's hotel list is kept (found the same way as by
+ * {@link SearchPaginator}); the surrounding envelope is dropped. Every
+ * successful city carries {@code hotels}, empty when nothing was found; a
+ * response that is not a hotel list at all is added alongside as
+ * {@code response}. A city whose search lost pages after a failure is marked
+ * {@code "partial": true}.</p>
+ */
+@Component
+public class SearchResultMerger {
+
+    /** One city and date range: the search response body, or a tool-facing error. */
+    public record CityResult(String city, String checkIn, String checkOut, String body, String error) {
+
+        public static CityResult of(String city, String checkIn, String checkOut, String body) {
+            return new CityResult(city, checkIn, checkOut, body, null);
+        }
+
+        public static CityResult failed(String city, String checkIn, String checkOut, String error) {
+            return new CityResult(city, checkIn, checkOut, null, error);
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+
+    public SearchResultMerger(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public String merge(List<CityResult> results) {
+        ObjectNode root = objectMapper.createObjectNode();
+        ArrayNode merged = root.putArray("results");
+        int failed = 0;
+        for (CityResult result : results) {
+            ObjectNode city = merged.addObject()
+                    .put("city", result.city())
+                    .put("checkIn", result.checkIn())
+                    .put("checkOut", result.checkOut());
+            if (result.error() != null) {
+                city.put("error", result.error());
+                failed++;
+                continue;
+            }
+            JsonNode response = parse(result.body());
+            ArrayNode hotels = response == null ? null : SearchPaginator.findHotels(response);
+            if (hotels != null) {
+                city.set("hotels", hotels);
+                if (response.path(SearchPaginator.PARTIAL_FIELD).asBoolean(false)) {
+                    city.put(SearchPaginator.PARTIAL_FIELD, true);
+                }
+                continue;
+            }
+            city.putArray("hotels");
+            if (response == null) {
+                city.put("response", result.body());
+            } else if (!hasEmptyHotelList(response)) {
+                city.set("response", response);
+            }
+        }
+        root.put("failed", failed);
+        try {
+            return objectMapper.writeValueAsString(root);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialise multi-city result", e);
+        }
+    }
+
+    private static boolean hasEmptyHotelList(JsonNode response) {
+        JsonNode hotels = response.findValue("hotels");
+        return hotels != null && hotels.isArray() && hotels.isEmpty();
+    }
+
+    private JsonNode parse(String body) {
+        if (body == null) return null;
+        try {
+            JsonNode node = objectMapper.readTree(body);
+            return node != null && node.isContainerNode() ? node : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
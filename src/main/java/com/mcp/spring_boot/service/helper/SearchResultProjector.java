@@ -0,0 +1,224 @@
+package com.mcp.spring_boot.service.helper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Projects a <code>search-by-location</code> response onto the few fields an
+ * agent needs, instead of handing the whole upstream payload (every room,
+ * price and policy) to the model:
+ * <pre>{ "hotels": [ { "hotelCode": …, "hotelName": …, "cheapestPrice": 412.5, "currency": "EUR", "board": "AI" } ], "count": 1 }</pre>
+ *
+ * <p>The response is streamed; only one array element is materialised at a
+ * time, so the envelope and other lists are skipped without being built. Per
+ * hotel, the configured top-level {@code fields} are copied, and the lowest
+ * numeric {@code price-fields} value anywhere inside it becomes
+ * {@code cheapestPrice}, with the {@code currency} and {@code board-fields}
+ * value found on that offer or its nearest enclosing object.</p>
+ *
+ * <p>A {@code "partial": true} flag at the top level of the response (see
+ * {@link SearchPaginator#PARTIAL_FIELD}) is carried over to the projection.</p>
+ *
+ * <p>{@code search.projection.bytes} records the UTF-8 size of each response
+ * before ({@code direction=in}) and after ({@code direction=out}) projection.</p>
+ */
+@Component
+public class SearchResultProjector {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchResultProjector.class);
+
+    public static final String BYTES_SUMMARY = "search.projection.bytes";
+    private static final String CURRENCY_FIELD = "currency";
+    private static final String HOTELS_FIELD = "hotels";
+
+    private final ObjectMapper objectMapper;
+    private final List<String> fields;
+    private final Set<String> priceFields;
+    private final List<String> boardFields;
+    private final DistributionSummary bytesIn;
+    private final DistributionSummary bytesOut;
+
+    public SearchResultProjector(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 @Value("${api.search-projection.fields:hotelCode,hotelId,hotelName,name,stars,category,facilities}") List<String> fields,
+                                 @Value("${api.search-projection.price-fields:totalPrice,price,amount,salePrice}") List<String> priceFields,
+                                 @Value("${api.search-projection.board-fields:boardType,board,boardName}") List<String> boardFields) {
+        this.objectMapper = objectMapper;
+        this.fields = List.copyOf(fields);
+        this.priceFields = Set.copyOf(priceFields);
+        this.boardFields = List.copyOf(boardFields);
+        this.bytesIn = bytes(meterRegistry, "in");
+        this.bytesOut = bytes(meterRegistry, "out");
+    }
+
+    private static DistributionSummary bytes(MeterRegistry registry, String direction) {
+        return DistributionSummary.builder(BYTES_SUMMARY)
+                .description("Search response size before and after projection")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .register(registry);
+    }
+
+    /** @return the compact projection, or {@code json} unchanged if it is not JSON or has no hotel list */
+    public String apply(String json) {
+        if (json == null) return null;
+        StringWriter out = new StringWriter(Math.min(json.length(), 8192));
+        int count = 0;
+        boolean emptyHotelList = false;
+        boolean partial = false;
+        try (JsonParser p = objectMapper.getFactory().createParser(json);
+             JsonGenerator g = objectMapper.getFactory().createGenerator(out)) {
+            JsonToken first = p.nextToken();
+            if (first != JsonToken.START_OBJECT && first != JsonToken.START_ARRAY) return json;
+            g.writeStartObject();
+            g.writeArrayFieldStart(HOTELS_FIELD);
+            for (JsonToken t = first; t != null; t = p.nextToken()) {
+                if (t == JsonToken.FIELD_NAME && SearchPaginator.PARTIAL_FIELD.equals(p.currentName())
+                        && p.getParsingContext().getParent().inRoot()) {
+                    partial = p.nextToken() == JsonToken.VALUE_TRUE;
+                    continue;
+                }
+                if (t == JsonToken.START_ARRAY && HOTELS_FIELD.equals(p.currentName())) {
+                    t = p.nextToken();
+                    if (t == JsonToken.END_ARRAY) {
+                        emptyHotelList = true;
+                        continue;
+                    }
+                }
+                if (t != JsonToken.START_OBJECT || !inArray(p.getParsingContext())) continue;
+                JsonNode element = objectMapper.readTree(p);        // one array element, parser left on its END_OBJECT
+                if (SearchPaginator.hotelCode(element) != null) {
+                    writeHotel(g, element);
+                    count++;
+                } else {
+                    ArrayNode nested = SearchPaginator.findHotels(element);
+                    if (nested == null) {
+                        emptyHotelList |= isEmptyHotelList(element.findValue(HOTELS_FIELD));
+                        continue;
+                    }
+                    for (JsonNode hotel : nested) {
+                        if (SearchPaginator.hotelCode(hotel) == null) continue;
+                        writeHotel(g, hotel);
+                        count++;
+                    }
+                }
+            }
+            g.writeEndArray();
+            g.writeNumberField("count", count);
+            if (partial) g.writeBooleanField(SearchPaginator.PARTIAL_FIELD, true);
+            g.writeEndObject();
+        } catch (IOException e) {
+            log.debug("Search response is not JSON, returning it unchanged: {}", e.getMessage());
+            return json;
+        }
+        if (count == 0 && !emptyHotelList) return json;      // nothing recognisable, keep what we got
+
+        String projected = out.toString();
+        bytesIn.record(utf8Length(json));
+        bytesOut.record(utf8Length(projected));
+        return projected;
+    }
+
+    private static boolean inArray(JsonStreamContext objectContext) {
+        return objectContext.getParent() != null && objectContext.getParent().inArray();
+    }
+
+    /** An upstream answer with zero hotels still deserves the compact form. */
+    private static boolean isEmptyHotelList(JsonNode hotels) {
+        return hotels != null && hotels.isArray() && hotels.isEmpty();
+    }
+
+    private void writeHotel(JsonGenerator g, JsonNode hotel) throws IOException {
+        g.writeStartObject();
+        for (String field : fields) {
+            JsonNode value = hotel.get(field);
+            if (value != null && !value.isNull()) {
+                g.writeFieldName(field);
+                objectMapper.writeTree(g, value);
+            }
+        }
+        Offer cheapest = new Offer();
+        cheapest(hotel, new ArrayDeque<>(), cheapest);
+        if (cheapest.price != null) {
+            g.writeFieldName("cheapestPrice");
+            objectMapper.writeTree(g, cheapest.price);
+            if (cheapest.currency != null) g.writeStringField(CURRENCY_FIELD, cheapest.currency);
+            if (cheapest.board != null) g.writeStringField("board", cheapest.board);
+        }
+        g.writeEndObject();
+    }
+
+    /** Lowest price found so far, with the currency and board that belong to it. */
+    private static final class Offer {
+        JsonNode price;
+        String currency;
+        String board;
+    }
+
+    /** Depth-first search for the lowest price field; {@code path} holds the enclosing objects, innermost first. */
+    private void cheapest(JsonNode node, Deque<JsonNode> path, Offer best) {
+        if (node.isArray()) {
+            for (JsonNode element : node) cheapest(element, path, best);
+            return;
+        }
+        if (!node.isObject()) return;
+        path.push(node);
+        for (Map.Entry<String, JsonNode> field : node.properties()) {
+            JsonNode value = field.getValue();
+            if (priceFields.contains(field.getKey()) && value.isNumber()) {
+                if (best.price == null || value.decimalValue().compareTo(best.price.decimalValue()) < 0) {
+                    best.price = value;
+                    best.currency = nearestText(path, List.of(CURRENCY_FIELD));
+                    best.board = nearestText(path, boardFields);
+                }
+            } else if (value.isContainerNode()) {
+                cheapest(value, path, best);
+            }
+        }
+        path.pop();
+    }
+
+    /** First of {@code names} present on the innermost enclosing object that has one; objects give their name or code. */
+    private static String nearestText(Deque<JsonNode> path, List<String> names) {
+        for (JsonNode object : path) {
+            for (String name : names) {
+                JsonNode value = object.get(name);
+                if (value == null || value.isNull()) continue;
+                if (value.isValueNode()) return value.asText();
+                if (value.hasNonNull("name")) return value.get("name").asText();
+                if (value.hasNonNull("code")) return value.get("code").asText();
+            }
+        }
+        return null;
+    }
+
+    private static int utf8Length(String s) {
+        int bytes = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) bytes += 1;
+            else if (c < 0x800) bytes += 2;
+            else if (Character.isHighSurrogate(c)) { bytes += 4; i++; }
+            else bytes += 3;
+        }
+        return bytes;
+    }
+}
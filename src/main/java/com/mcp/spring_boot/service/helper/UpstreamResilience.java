@@ -0,0 +1,107 @@
+package com.mcp.spring_boot.service.helper;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.netty.handler.timeout.TimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+/**
+ * Resilience4j guards around the upstream hotel API, one set per endpoint.
+ *
+ * <p>Every upstream request runs through a semaphore bulkhead and a circuit
+ * breaker. The bulkhead sits outside the breaker, so its local rejections under
+ * load are not counted as upstream failures and cannot open the breaker.
+ * Autocomplete, which is a pure read, is additionally retried with jittered
+ * exponential backoff (outermost, so each attempt is seen by the breaker).</p>
+ *
+ * <p>Optionally a second, hedged request is sent when the first has not answered
+ * within {@code api.resilience.hedge-delay}. The first <em>value</em> wins and
+ * the other request is cancelled; an error from one of them is ignored while the
+ * other is still running. The hedge is a request of its own: it takes its own
+ * bulkhead permit, so it is shed rather than queued when the bulkhead is full.</p>
+ *
+ * <p>The bulkhead counts requests, not tool calls. One search fans out to
+ * {@code api.search-pagination.concurrency} pages, and a multi-city search to
+ * {@code api.multi-city.concurrency} such searches, so the search bulkhead is
+ * sized for sessions times pages in flight, twice that with hedging on.
+ * Instance settings live under {@code resilience4j.*}.</p>
+ */
+@Component
+public class UpstreamResilience {
+
+    public static final String AUTOCOMPLETE = "autocomplete";
+    public static final String SEARCH = "search";
+
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final RetryRegistry retries;
+    private final Duration hedgeDelay;
+
+    public UpstreamResilience(CircuitBreakerRegistry circuitBreakers,
+                              BulkheadRegistry bulkheads,
+                              RetryRegistry retries,
+                              @Value("${api.resilience.hedge-delay:0s}") Duration hedgeDelay) {
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+        this.retries = retries;
+        this.hedgeDelay = hedgeDelay;
+    }
+
+    /** Bulkhead, breaker, hedge and retry for the idempotent autocomplete call. */
+    public <T> Mono<T> autocomplete(Supplier<Mono<T>> call) {
+        Retry retry = retries.retry(AUTOCOMPLETE);
+        return guarded(AUTOCOMPLETE, call).transformDeferred(RetryOperator.of(retry));
+    }
+
+    /** Bulkhead, breaker and hedge for search; not retried, the caller decides. */
+    public <T> Mono<T> search(Supplier<Mono<T>> call) {
+        return guarded(SEARCH, call);
+    }
+
+    private <T> Mono<T> guarded(String name, Supplier<Mono<T>> call) {
+        CircuitBreaker breaker = circuitBreakers.circuitBreaker(name);
+        Bulkhead bulkhead = bulkheads.bulkhead(name);
+        return hedged(Mono.defer(call)
+                .transformDeferred(CircuitBreakerOperator.of(breaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead)));
+    }
+
+    private <T> Mono<T> hedged(Mono<T> attempt) {
+        if (hedgeDelay.isZero() || hedgeDelay.isNegative()) return attempt;
+        return Mono.firstWithValue(attempt, Mono.delay(hedgeDelay).then(attempt))
+                // both failed: report the primary's error, not firstWithValue's NoSuchElementException
+                .onErrorMap(e -> e instanceof NoSuchElementException && e.getCause() != null,
+                            e -> Exceptions.unwrapMultiple(e.getCause()).get(0));
+    }
+
+    /** Worth another attempt: connection problems, timeouts and 5xx answers. */
+    public static boolean isTransient(Throwable e) {
+        return e instanceof WebClientRequestException
+            || e instanceof TimeoutException
+            || e instanceof java.util.concurrent.TimeoutException
+            || (e instanceof WebClientResponseException r && r.getStatusCode().is5xxServerError());
+    }
+
+    /** Rejected locally without reaching the upstream (breaker open or bulkhead full). */
+    public static boolean isRejected(Throwable e) {
+        return e instanceof CallNotPermittedException || e instanceof BulkheadFullException;
+    }
+}
@@ -0,0 +1,87 @@
+package com.mcp.spring_boot.service.helper;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Streaming (SAX / event-model) reader for the first sheet of an xlsx file.
+ *
+ * <p>Rows are handed to the callback one at a time, so the sheet is never
+ * materialized as a POI object graph the way {@code XSSFWorkbook} does.</p>
+ */
+final class XlsxSheetReader {
+
+    /** Receives each row; {@code cells} is reused between rows, blank cells are {@code null}. */
+    @FunctionalInterface
+    interface RowHandler {
+        void row(int rowNum, String[] cells);
+    }
+
+    private XlsxSheetReader() {
+    }
+
+    /**
+     * @param columns number of leading columns to expose, the rest are ignored
+     */
+    static void read(InputStream is, int columns, DataFormatter formatter, RowHandler handler) throws Exception {
+        OPCPackage pkg = OPCPackage.open(is);
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) return;
+
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        styles, null, strings, new Rows(columns, handler), formatter, false));
+                parser.parse(new InputSource(sheet));
+            }
+        } finally {
+            pkg.revert();                                       // read-only: never write back
+        }
+    }
+
+    private static final class Rows implements SheetContentsHandler {
+        private final String[] cells;
+        private final RowHandler handler;
+
+        Rows(int columns, RowHandler handler) {
+            this.cells = new String[columns];
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(cells, null);
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            handler.row(rowNum, cells);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (cellReference == null || formattedValue == null || formattedValue.isBlank()) return;
+            int col = new CellReference(cellReference).getCol();
+            if (col < cells.length) cells[col] = formattedValue.trim();
+        }
+    }
+}
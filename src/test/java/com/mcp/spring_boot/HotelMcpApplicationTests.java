@@ -1,13 +1,53 @@
 package com.mcp.spring_boot;
 
+import io.github.resilience4j.retry.RetryRegistry;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
-@SpringBootTest
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@AutoConfigureObservability
 class HotelMcpApplicationTests {
 
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private RetryRegistry retryRegistry;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void autocompleteRetriesOnlyTransientFailures() {
+		Predicate<Throwable> retryOn = retryRegistry.retry("autocomplete").getRetryConfig().getExceptionPredicate();
+
+		assertThat(retryOn.test(WebClientResponseException.create(HttpStatus.SERVICE_UNAVAILABLE.value(), "", null, null, null)))
+				.isTrue();
+		assertThat(retryOn.test(WebClientResponseException.create(HttpStatus.BAD_REQUEST.value(), "", null, null, null)))
+				.isFalse();
+	}
+
+	@Test
+	void exposesPrometheusScrapeEndpoint() {
+		webTestClient.get().uri("/actuator/prometheus")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class)
+				.value(body -> assertThat(body)
+						.contains("cache_gets_total", "resilience4j_circuitbreaker_state",
+								"logback_events_dropped_total{appender=\"ASYNC_CONSOLE\""));
+	}
+
 }
@@ -0,0 +1,76 @@
+package com.mcp.spring_boot.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountingAsyncAppenderTests {
+
+	@Test
+	void dropsAndCountsInsteadOfBlockingWhenTheQueueIsFull() throws Exception {
+		LoggerContext context = new LoggerContext();
+		context.setMDCAdapter(new LogbackMDCAdapter());
+		Logger logger = context.getLogger("upstream");
+		CountDownLatch taken = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AppenderBase<ILoggingEvent> stalled = new AppenderBase<>() {
+			@Override
+			protected void append(ILoggingEvent event) {
+				taken.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		stalled.setContext(context);
+		stalled.start();
+
+		CountingAsyncAppender appender = new CountingAsyncAppender();
+		appender.setContext(context);
+		appender.setName("ASYNC");
+		appender.setQueueSize(2);
+		appender.setDiscardingThreshold(0);
+		appender.setNeverBlock(true);
+		appender.addAppender(stalled);
+		appender.start();
+
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		LogMetrics.bind(registry, appender);
+		try {
+			appender.doAppend(event(logger, Level.WARN));
+			assertThat(taken.await(5, TimeUnit.SECONDS)).isTrue();     // the worker is now stuck on the console
+			appender.doAppend(event(logger, Level.WARN));
+			appender.doAppend(event(logger, Level.WARN));
+
+			long start = System.nanoTime();
+			appender.doAppend(event(logger, Level.WARN));
+			appender.doAppend(event(logger, Level.ERROR));
+
+			assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+			assertThat(appender.dropped(Level.WARN)).isEqualTo(1);
+			assertThat(registry.get(LogMetrics.COUNTER).tags("appender", "ASYNC", "level", "error")
+					.functionCounter().count()).isEqualTo(1);
+		} finally {
+			release.countDown();
+			appender.stop();
+		}
+	}
+
+	private static LoggingEvent event(Logger logger, Level level) {
+		return new LoggingEvent(Logger.class.getName(), logger, level, "upstream down", null, null);
+	}
+
+}
@@ -0,0 +1,66 @@
+package com.mcp.spring_boot.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.modelcontextprotocol.server.McpServerFeatures.AsyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.annotation.Tool;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveToolSpecificationsTests {
+
+	static class Tools {
+		@Tool(name = "echo", description = "d")
+		public Mono<String> echo(String text) {
+			return Mono.just(text);
+		}
+
+		@Tool(name = "broken", description = "d")
+		public Mono<String> broken(String text) {
+			return Mono.error(new NullPointerException());
+		}
+
+		@Tool(name = "blocking", description = "d")
+		public String blocking(String text) {
+			return text;
+		}
+	}
+
+	private static McpSchema.CallToolResult call(String name, Map<String, Object> arguments) {
+		AsyncToolSpecification spec = ReactiveToolSpecifications.from(new ToolMetrics(new SimpleMeterRegistry()), new Tools()).stream()
+				.filter(s -> s.tool().name().equals(name))
+				.findFirst().orElseThrow();
+		return spec.call().apply(null, arguments).block();
+	}
+
+	private static String text(McpSchema.CallToolResult result) {
+		return ((McpSchema.TextContent) result.content().get(0)).text();
+	}
+
+	@Test
+	void registersOnlyMonoTools() {
+		assertThat(ReactiveToolSpecifications.toolNames(new Tools())).containsExactlyInAnyOrder("echo", "broken");
+	}
+
+	@Test
+	void convertsTheResultToText() {
+		McpSchema.CallToolResult result = call("echo", Map.of("text", "hi"));
+
+		assertThat(result.isError()).isFalse();
+		assertThat(text(result)).isEqualTo("\"hi\"");
+	}
+
+	@Test
+	void reportsErrorsWithoutAMessageByExceptionType() {
+		McpSchema.CallToolResult result = call("broken", Map.of("text", "hi"));
+
+		assertThat(result.isError()).isTrue();
+		assertThat(result.content()).hasSize(1);
+		assertThat(text(result)).isEqualTo(NullPointerException.class.getName());
+	}
+
+}
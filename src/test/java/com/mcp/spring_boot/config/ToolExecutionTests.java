@@ -0,0 +1,62 @@
+package com.mcp.spring_boot.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.modelcontextprotocol.server.McpServerFeatures.AsyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ToolExecutionTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	/** A tool answering with the name of the thread it ran on. */
+	private static final ToolCallback THREAD_NAME = new ToolCallback() {
+		@Override
+		public ToolDefinition getToolDefinition() {
+			return ToolDefinition.builder().name("hotel_facility_check").description("d").inputSchema("{}").build();
+		}
+
+		@Override
+		public String call(String input) {
+			return Thread.currentThread().getName();
+		}
+
+		@Override
+		public String call(String input, ToolContext context) {     // MCP passes the exchange as context
+			return call(input);
+		}
+	};
+
+	private String run(ToolExecution execution) {
+		AsyncToolSpecification spec = execution.dispatch(THREAD_NAME);
+		McpSchema.CallToolResult result = spec.call().apply(null, Map.of()).block();
+		return ((McpSchema.TextContent) result.content().get(0)).text();
+	}
+
+	@Test
+	void runsBlockingToolsOnBoundedElasticByDefault() {
+		ToolExecution execution = new ToolExecution(ToolExecution.Mode.BOUNDED_ELASTIC, registry);
+
+		assertThat(run(execution)).startsWith("boundedElastic-");
+		assertThat(registry.get(ToolExecution.WAIT_TIMER).tag("mode", "bounded-elastic").timer().count()).isEqualTo(1);
+		assertThat(registry.get(ToolExecution.CONCURRENCY).summary().max()).isEqualTo(1);
+	}
+
+	@Test
+	void runsBlockingToolsOnVirtualThreads() {
+		ToolExecution execution = new ToolExecution(ToolExecution.Mode.VIRTUAL_THREADS, registry);
+		try {
+			assertThat(run(execution)).startsWith("mcp-tool-");
+		} finally {
+			execution.destroy();
+		}
+	}
+
+}
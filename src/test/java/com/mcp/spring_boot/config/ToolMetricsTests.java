@@ -0,0 +1,74 @@
+package com.mcp.spring_boot.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.modelcontextprotocol.server.McpServerFeatures.AsyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ToolMetricsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final ToolMetrics metrics = new ToolMetrics(registry);
+
+	private long count(String tool, String outcome, String exception) {
+		Timer timer = registry.find(ToolMetrics.TIMER)
+				.tags("tool", tool, "outcome", outcome, "exception", exception).timer();
+		return timer == null ? 0 : timer.count();
+	}
+
+	@Test
+	void timesSyncToolsByOutcome() {
+		ToolCallback callback = metrics.timed(new ToolCallback() {
+			@Override
+			public ToolDefinition getToolDefinition() {
+				return ToolDefinition.builder().name("hotel_facility_check").description("d").inputSchema("{}").build();
+			}
+
+			@Override
+			public String call(String input) {
+				if (input.isEmpty()) throw new IllegalArgumentException("empty");
+				return "ok";
+			}
+		});
+
+		assertThat(callback.call("{}")).isEqualTo("ok");
+		assertThatThrownBy(() -> callback.call("")).isInstanceOf(IllegalArgumentException.class);
+
+		assertThat(count("hotel_facility_check", "success", "none")).isEqualTo(1);
+		assertThat(count("hotel_facility_check", "error", "IllegalArgumentException")).isEqualTo(1);
+	}
+
+	static class Tools {
+		@Tool(name = "hotel_search_by_location", description = "d")
+		public Mono<String> search(String city) {
+			return city.isEmpty()
+					? Mono.error(new ToolFailure("Hotel search failed: city is missing.", new IllegalStateException()))
+					: Mono.just(city);
+		}
+	}
+
+	@Test
+	void timesReactiveToolsByTheCauseOfTheirFailure() {
+		AsyncToolSpecification spec = ReactiveToolSpecifications.from(metrics, new Tools()).get(0);
+
+		assertThat(spec.call().apply(null, Map.of("city", "Bodrum")).block().isError()).isFalse();
+		McpSchema.CallToolResult failed = spec.call().apply(null, Map.of("city", "")).block();
+
+		assertThat(failed.isError()).isTrue();
+		assertThat(failed.content()).singleElement()
+				.isEqualTo(new McpSchema.TextContent("Hotel search failed: city is missing."));
+		assertThat(count("hotel_search_by_location", "success", "none")).isEqualTo(1);
+		assertThat(count("hotel_search_by_location", "error", "IllegalStateException")).isEqualTo(1);
+	}
+
+}
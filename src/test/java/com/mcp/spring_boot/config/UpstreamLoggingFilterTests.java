@@ -0,0 +1,65 @@
+package com.mcp.spring_boot.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UpstreamLoggingFilterTests {
+
+	private final Logger logger = (Logger) LoggerFactory.getLogger(UpstreamLoggingFilter.class);
+	private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+	@BeforeEach
+	void attach() {
+		appender.start();
+		logger.addAppender(appender);
+	}
+
+	@AfterEach
+	void detach() {
+		logger.detachAppender(appender);
+	}
+
+	private static WebClient client(UpstreamLoggingFilter filter, HttpStatus status, String body) {
+		return WebClient.builder()
+				.defaultHeader("Authorization", "Bearer secret-token")
+				.exchangeFunction(request -> Mono.just(ClientResponse.create(status).body(body).build()))
+				.filter(filter)
+				.build();
+	}
+
+	@Test
+	void logsSampledSuccessesWithoutHeadersOrBody() {
+		client(new UpstreamLoggingFilter(0.5, 100, () -> 0.9), HttpStatus.OK, "{}")
+				.get().uri("http://api/a").retrieve().bodyToMono(String.class).block();
+		assertThat(appender.list).isEmpty();
+
+		client(new UpstreamLoggingFilter(0.5, 100, () -> 0.1), HttpStatus.OK, "{}")
+				.get().uri("http://api/a").retrieve().bodyToMono(String.class).block();
+		assertThat(appender.list).singleElement().extracting(ILoggingEvent::getFormattedMessage).asString()
+				.startsWith("upstream method=GET uri=/a status=200 durationMs=")
+				.doesNotContain("secret-token", "{}");
+	}
+
+	@Test
+	void alwaysLogsErrorsWithRedactedHeadersAndTruncatedBody() {
+		String body = client(new UpstreamLoggingFilter(0, 5, () -> 0.0), HttpStatus.BAD_GATEWAY, "upstream down")
+				.get().uri("http://api/b").exchangeToMono(r -> r.bodyToMono(String.class)).block();
+
+		assertThat(body).isEqualTo("upstream down");   // still readable downstream
+		assertThat(appender.list).singleElement().extracting(ILoggingEvent::getFormattedMessage).asString()
+				.contains("status=502", "Authorization=***", "body=\"upstr…\"")
+				.doesNotContain("secret-token");
+	}
+
+}
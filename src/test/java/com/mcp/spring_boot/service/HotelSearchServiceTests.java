@@ -0,0 +1,128 @@
+package com.mcp.spring_boot.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.spring_boot.HotelMcpApplication;
+import com.mcp.spring_boot.config.ToolExecution;
+import com.mcp.spring_boot.config.ToolMetrics;
+import com.mcp.spring_boot.params.LocationHotelSearchParams;
+import com.mcp.spring_boot.params.MultiCityHotelSearchParams;
+import com.mcp.spring_boot.service.helper.HotelFacilityDataLoader;
+import com.mcp.spring_boot.service.helper.HotelSearchServiceMethods;
+import com.mcp.spring_boot.service.helper.SearchPaginator;
+import com.mcp.spring_boot.service.helper.SearchResultEnricher;
+import com.mcp.spring_boot.service.helper.SearchResultMerger;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.modelcontextprotocol.server.McpServerFeatures.AsyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class HotelSearchServiceTests {
+
+	private final HotelSearchServiceMethods helper = mock(HotelSearchServiceMethods.class);
+	private final HotelFacilityDataLoader loader = mock(HotelFacilityDataLoader.class);
+
+	private final SearchPaginator paginator = mock(SearchPaginator.class);
+	private final SearchResultEnricher enricher = mock(SearchResultEnricher.class);
+
+	private final HotelSearchService service = new HotelSearchService(null, helper, loader, null, enricher, paginator,
+			new SearchResultMerger(new ObjectMapper()), null, null, Duration.ofSeconds(1), 2);
+
+	private void answerEverySearch() {
+		when(loader.unknownFacilities(any())).thenReturn(List.of());
+		when(helper.getLocationIdByQuery(anyString())).thenReturn(Mono.just(7));
+		when(paginator.fetch(anyInt(), anyInt(), any(), anyBoolean(), any())).thenReturn(Mono.just("{\"hotels\":[]}"));
+		when(enricher.apply(anyString(), anyBoolean())).thenAnswer(call -> call.getArgument(0));
+	}
+
+	@Test
+	void singleAndMultiCitySearchStartAtTheSameDefaultOffset() {
+		answerEverySearch();
+		LocationHotelSearchParams single = new LocationHotelSearchParams();
+		single.setCity("Bodrum");
+		single.setFullResponse(true);
+		MultiCityHotelSearchParams multi = new MultiCityHotelSearchParams();
+		multi.setCities(List.of("Bodrum"));
+		multi.setFullResponse(true);
+
+		service.searchByCity(single).block();
+		service.searchMultiCity(multi).block();
+
+		ArgumentCaptor<Integer> offsets = ArgumentCaptor.forClass(Integer.class);
+		verify(paginator, times(2)).fetch(offsets.capture(), anyInt(), any(), anyBoolean(), any());
+		assertThat(offsets.getAllValues()).containsExactly(300, 300);
+	}
+
+	@Test
+	void multiCitySearchTreatsDifferentlyCasedCitiesAsOne() {
+		answerEverySearch();
+		MultiCityHotelSearchParams multi = new MultiCityHotelSearchParams();
+		multi.setCities(List.of("İzmir", "Bodrum", "IZMIR", " bodrum "));
+		multi.setFullResponse(true);
+
+		assertThat(service.searchMultiCity(multi).block())
+				.contains("\"city\":\"İzmir\"", "\"city\":\"Bodrum\"")
+				.doesNotContain("IZMIR", "bodrum");
+		verify(helper).getLocationIdByQuery("İzmir");
+		verify(helper).getLocationIdByQuery("Bodrum");
+		verify(paginator, times(2)).fetch(anyInt(), anyInt(), any(), anyBoolean(), any());
+	}
+
+	@Test
+	void locationLookupRejectionsReportTheServiceAsUnavailableAndAreTimedAsErrors() {
+		when(loader.unknownFacilities(any())).thenReturn(List.of());
+		when(helper.getLocationIdByQuery("Bodrum")).thenReturn(
+				Mono.error(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("autocomplete"))));
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		AsyncToolSpecification tool = new HotelMcpApplication()
+				.hotelAsyncTools(service, new ToolMetrics(registry), new ToolExecution(ToolExecution.Mode.BOUNDED_ELASTIC, registry))
+				.stream().filter(spec -> spec.tool().name().equals("hotel_search_by_location"))
+				.findFirst().orElseThrow();
+
+		McpSchema.CallToolResult result = tool.call().apply(null, Map.of("params", Map.of("city", "Bodrum"))).block();
+
+		assertThat(result.isError()).isTrue();
+		assertThat(result.content()).singleElement().extracting(content -> ((McpSchema.TextContent) content).text())
+				.asString().contains("temporarily unavailable");
+		assertThat(registry.get(ToolMetrics.TIMER)
+				.tags("tool", "hotel_search_by_location", "outcome", "error", "exception", "CallNotPermittedException")
+				.timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void unknownRequiredFacilitiesFailBeforeAnyUpstreamCall() {
+		when(loader.unknownFacilities(List.of("Spa", "Sauna"))).thenReturn(List.of("Sauna"));
+		LocationHotelSearchParams single = new LocationHotelSearchParams();
+		single.setCity("Bodrum");
+		single.setRequiredFacilities(List.of("Spa", "Sauna"));
+		MultiCityHotelSearchParams multi = new MultiCityHotelSearchParams();
+		multi.setCities(List.of("Bodrum", "Fethiye"));
+		multi.setRequiredFacilities(List.of("Spa", "Sauna"));
+
+		assertThat(service.searchByCity(single).block())
+				.isEqualTo("Hotel search failed: unknown facilities [Sauna] in requiredFacilities. Please check the facility names.");
+		assertThat(service.searchMultiCity(multi).block())
+				.startsWith("Multi-city search failed: unknown facilities [Sauna]");
+		verifyNoInteractions(helper);
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.mcp.spring_boot.service.helper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AutocompleteParserTests {
+
+	private final AutocompleteParser parser = new AutocompleteParser(new JsonFactory());
+
+	private Optional<Integer> parse(String json) {
+		return parser.firstCityId(json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void returnsFirstCityIdSkippingOtherValues() {
+		assertThat(parse("""
+				{"total":3,"items":[
+				  {"type":"HOTEL","hotels":[{"id":"H1","locations":"n/a"}]},
+				  {"locations":[{"meta":{"id":1},"id":"x7","locationType":"CITY"},
+				                {"locationType":"CITY","id":34,"names":["İstanbul"]}]}
+				]}""")).contains(34);
+	}
+
+	@Test
+	void stopsReadingAtTheFirstCity() {
+		// everything after the match is never parsed, so trailing garbage is harmless
+		assertThat(parse("{\"items\":[{\"locations\":[{\"id\":7,\"locationType\":\"CITY\"}]}, !!!")).contains(7);
+	}
+
+	@Test
+	void emptyWithoutItemsOrCities() {
+		assertThat(parse("{\"result\":[]}")).isEmpty();
+		assertThat(parse("{\"items\":[{\"locations\":[{\"id\":1,\"locationType\":\"REGION\"}]}]}")).isEmpty();
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.mcp.spring_boot.service.helper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CityLocationIndexTests {
+
+	@TempDir
+	Path dir;
+
+	private CityLocationIndex index(Path learned) {
+		CityLocationIndex index = new CityLocationIndex(
+				new ByteArrayResource("42;Muğla;mugla\n".getBytes(StandardCharsets.UTF_8)),
+				learned == null ? "" : learned.toString(), 100, Duration.ofDays(7));
+		index.init();
+		return index;
+	}
+
+	private static void awaitWrite(Path file) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();       // written off the caller's thread
+		while (!Files.exists(file) && System.nanoTime() < deadline) Thread.sleep(10);
+		Thread.sleep(50);
+	}
+
+	@Test
+	void learnsOnlyPlainCityNamesUnderTheirNormalizedKey() throws Exception {
+		Path learned = dir.resolve("learned.csv");
+		CityLocationIndex index = index(learned);
+
+		index.learn("İzmir\n99;muğla", 99);
+		index.learn("Kaş\u0000", 98);
+		index.learn("<script>", 97);
+		index.learn("MUĞLA", 96);
+		index.learn(" Ölüdeniz ", 7);
+		awaitWrite(learned);
+
+		assertThat(index.lookup("izmir")).isNull();
+		assertThat(index.lookup("mugla")).isEqualTo(42);
+		assertThat(index.lookup("oludeniz")).isEqualTo(7);
+		assertThat(index.learnedSize()).isEqualTo(1);
+		assertThat(Files.readAllLines(learned)).singleElement().asString().startsWith("7;oludeniz;");
+	}
+
+	@Test
+	void dropsExpiredAndForgedLinesWhenReadingTheLearnedFile() throws Exception {
+		Path learned = dir.resolve("learned.csv");
+		Instant now = Instant.now();
+		Files.writeString(learned, "7;oludeniz;" + now + "\n"
+				+ "8;kas;" + now.minus(Duration.ofDays(8)) + "\n"
+				+ "9;Izmir;" + now + "\n"
+				+ "10;bodrum\n");
+
+		CityLocationIndex index = index(learned);
+
+		assertThat(index.lookup("oludeniz")).isEqualTo(7);
+		assertThat(index.lookup("kas")).isNull();
+		assertThat(index.lookup("izmir")).isNull();
+		assertThat(index.lookup("bodrum")).isNull();
+		assertThat(learned).content().isEqualTo("7;oludeniz;" + now + "\n");
+	}
+
+	@Test
+	void keepsLearnedIdsInMemoryWithoutAPath() {
+		CityLocationIndex index = index(null);
+
+		index.learn("Fethiye", 5);
+
+		assertThat(index.lookup("fethiye")).isEqualTo(5);
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.mcp.spring_boot.service.helper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FacilityStoreTests {
+
+	@Test
+	void keepsAtMostMaxListingsRenderedListings() {
+		FacilityStore.Builder builder = new FacilityStore.Builder().facility(1, "Spa").facility(2, "Indoor Pool");
+		int hotels = FacilityStore.MAX_LISTINGS + 1000;
+		for (int i = 0; i < hotels; i++) {
+			builder.hotel("h" + i, i % 2 == 0 ? new long[] {1, 2} : new long[] {2});
+		}
+		FacilityStore store = builder.build();
+
+		for (int h = 0; h < hotels; h++) {
+			String expected = store.facilityNames(store.hotelCode(h)).size() == 2 ? "- Spa\n- Indoor Pool\n" : "- Indoor Pool\n";
+			assertThat(store.facilityListing(h)).isEqualTo(expected);
+		}
+
+		assertThat(store.cachedListings()).isLessThanOrEqualTo(FacilityStore.MAX_LISTINGS);
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.mcp.spring_boot.service.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotelCodeMatcherTests {
+
+	private static final String ALPHABET = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+	private static int levenshtein(String a, String b) {
+		int[][] d = new int[a.length() + 1][b.length() + 1];
+		for (int i = 0; i <= a.length(); i++) d[i][0] = i;
+		for (int j = 0; j <= b.length(); j++) d[0][j] = j;
+		for (int i = 1; i <= a.length(); i++) {
+			for (int j = 1; j <= b.length(); j++) {
+				int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+				d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+			}
+		}
+		return d[a.length()][b.length()];
+	}
+
+	private static String randomCode(Random r) {
+		StringBuilder sb = new StringBuilder("sw");
+		for (int i = 0; i < 10; i++) sb.append(ALPHABET.charAt(r.nextInt(ALPHABET.length())));
+		return sb.toString();
+	}
+
+	@Test
+	void matchesLinearScan() {
+		Random r = new Random(42);
+		List<String> codes = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) codes.add(randomCode(r));
+		codes = codes.stream().distinct().sorted().toList();
+		HotelCodeMatcher matcher = new HotelCodeMatcher(codes);
+
+		for (int q = 0; q < 200; q++) {
+			String input;
+			if (q % 4 == 0) {
+				input = randomCode(r);
+			} else {
+				char[] c = codes.get(r.nextInt(codes.size())).toCharArray();
+				for (int e = 0; e < q % 4; e++) c[r.nextInt(c.length)] = ALPHABET.charAt(r.nextInt(ALPHABET.length()));
+				input = new String(c);
+			}
+
+			Map<String, Integer> distance = new HashMap<>();
+			codes.forEach(c -> distance.put(c, levenshtein(input, c)));
+			List<String> expected = codes.stream()
+					.sorted(Comparator.comparingInt((String c) -> distance.get(c)).thenComparing(c -> c))
+					.limit(3)
+					.toList();
+			assertThat(matcher.closest(input, 3, Integer.MAX_VALUE)).isEqualTo(expected);
+
+			List<String> within2 = expected.stream().filter(c -> distance.get(c) <= 2).toList();
+			assertThat(matcher.closest(input, 3, 2)).isEqualTo(within2);
+		}
+	}
+
+}
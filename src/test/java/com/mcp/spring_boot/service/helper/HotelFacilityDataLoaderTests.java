@@ -0,0 +1,147 @@
+package com.mcp.spring_boot.service.helper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotelFacilityDataLoaderTests {
+
+	@TempDir
+	Path dir;
+
+	private static void sheet(Path file, String[]... rows) throws Exception {
+		try (XSSFWorkbook wb = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+			Sheet sh = wb.createSheet();
+			for (int r = 0; r < rows.length; r++) {
+				Row row = sh.createRow(r);
+				for (int c = 0; c < rows[r].length; c++) {
+					row.createCell(c).setCellValue(rows[r][c]);
+				}
+			}
+			wb.write(out);
+		}
+	}
+
+	private HotelFacilityDataLoader loader(Path hotels, Path facilities, String snapshot) {
+		return loader(hotels, facilities, snapshot, new SimpleMeterRegistry());
+	}
+
+	private HotelFacilityDataLoader loader(Path hotels, Path facilities, String snapshot, SimpleMeterRegistry registry) {
+		return new HotelFacilityDataLoader(new FileSystemResource(hotels), new FileSystemResource(facilities),
+				true, snapshot, registry);
+	}
+
+	/** The {@code source} tag of the one dataset load recorded in {@code registry}. */
+	private static String loadedFrom(SimpleMeterRegistry registry) {
+		return registry.get("facility.data.load").timer().getId().getTag("source");
+	}
+
+	@Test
+	void reloadSwapsInChangedDataset() throws Exception {
+		Path facilities = dir.resolve("facilities.xlsx");
+		Path hotels = dir.resolve("hotels.xlsx");
+		sheet(facilities, new String[] {"id", "name"}, new String[] {"1", "Spa"}, new String[] {"2", "Indoor Pool"});
+		sheet(hotels, new String[] {"hotelId", "name", "facilities"}, new String[] {"ABC1", "Hotel", "1"});
+
+		HotelFacilityDataLoader loader = loader(hotels, facilities, "");
+		loader.loadData();
+		assertThat(loader.getFacilityNamesForHotel("abc1")).containsExactly("Spa");
+
+		sheet(hotels, new String[] {"hotelId", "name", "facilities"}, new String[] {"ABC1", "Hotel", "1, 2"},
+				new String[] {"XYZ9", "Other", "2"});
+		loader.reloadIfChanged();
+
+		assertThat(loader.getFacilityNamesForHotel("ABC1")).containsExactly("Spa", "Indoor Pool");
+		assertThat(loader.getFacilityNamesForHotel("xyz9")).containsExactly("Indoor Pool");
+	}
+
+	@Test
+	void facilityListingIsRenderedOncePerDataset() throws Exception {
+		Path facilities = dir.resolve("facilities.xlsx");
+		Path hotels = dir.resolve("hotels.xlsx");
+		sheet(facilities, new String[] {"id", "name"}, new String[] {"1", "Spa"}, new String[] {"2", "Indoor Pool"});
+		sheet(hotels, new String[] {"hotelId", "name", "facilities"}, new String[] {"ABC1", "Hotel", "1, 2"},
+				new String[] {"XYZ9", "Other", ""});
+
+		HotelFacilityDataLoader loader = loader(hotels, facilities, "");
+		loader.loadData();
+		String listing = loader.getFacilityListing("ABC1");
+		assertThat(listing).isEqualTo("- Spa\n- Indoor Pool\n");
+		assertThat(loader.getFacilityListing(" abc1 ")).isSameAs(listing);
+		assertThat(loader.getFacilityListing("xyz9")).isEmpty();
+		assertThat(loader.getFacilityListing("nope")).isEmpty();
+
+		sheet(hotels, new String[] {"hotelId", "name", "facilities"}, new String[] {"ABC1", "Hotel", "2"});
+		loader.reloadIfChanged();
+
+		assertThat(loader.getFacilityListing("abc1")).isEqualTo("- Indoor Pool\n");
+	}
+
+	@Test
+	void snapshotIsReusedUntilSourcesChange() throws Exception {
+		Path facilities = dir.resolve("facilities.xlsx");
+		Path hotels = dir.resolve("hotels.xlsx");
+		String snapshot = dir.resolve("facilities.snapshot").toString();
+		sheet(facilities, new String[] {"id", "name"}, new String[] {"1", "Spa"});
+		sheet(hotels, new String[] {"hotelId", "name", "facilities"}, new String[] {"ABC1", "Hotel", "1"});
+
+		SimpleMeterRegistry first = new SimpleMeterRegistry();
+		loader(hotels, facilities, snapshot, first).loadData();
+		assertThat(loadedFrom(first)).isEqualTo("xlsx");
+		assertThat(Path.of(snapshot)).exists();
+		FileTime written = FileTime.fromMillis(0);
+		Files.setLastModifiedTime(Path.of(snapshot), written);      // a rewrite below must move it
+
+		SimpleMeterRegistry second = new SimpleMeterRegistry();
+		HotelFacilityDataLoader fromSnapshot = loader(hotels, facilities, snapshot, second);
+		fromSnapshot.loadData();
+		assertThat(loadedFrom(second)).isEqualTo("snapshot");
+		assertThat(fromSnapshot.getFacilityNamesForHotel("abc1")).containsExactly("Spa");
+		assertThat(Files.getLastModifiedTime(Path.of(snapshot))).isEqualTo(written);
+
+		sheet(facilities, new String[] {"id", "name"}, new String[] {"1", "Wellness Spa"});
+		SimpleMeterRegistry third = new SimpleMeterRegistry();
+		HotelFacilityDataLoader stale = loader(hotels, facilities, snapshot, third);
+		stale.loadData();
+		assertThat(loadedFrom(third)).isEqualTo("xlsx");
+		assertThat(stale.getFacilityNamesForHotel("abc1")).containsExactly("Wellness Spa");
+		assertThat(Files.getLastModifiedTime(Path.of(snapshot))).isNotEqualTo(written);
+	}
+
+	@Test
+	void findsHotelsByFacilityNames() throws Exception {
+		Path facilities = dir.resolve("facilities.xlsx");
+		Path hotels = dir.resolve("hotels.xlsx");
+		sheet(facilities, new String[] {"id", "name"}, new String[] {"1", "Spa"}, new String[] {"2", "Indoor Pool"},
+				new String[] {"3", "spa"});
+		sheet(hotels, new String[] {"hotelId", "name", "facilities"}, new String[] {"A1", "a", "1, 2"},
+				new String[] {"B2", "b", "3"}, new String[] {"C3", "c", "2"});
+
+		HotelFacilityDataLoader loader = loader(hotels, facilities, "");
+		loader.loadData();
+
+		var all = loader.findHotelsByFacilities(List.of("SPA", "indoor pool"), true, 10);
+		assertThat(all.total()).isEqualTo(1);
+		assertThat(all.hotelCodes()).containsExactly("a1");
+
+		var any = loader.findHotelsByFacilities(List.of("Spa", "Sauna"), false, 10);
+		assertThat(any.hotelCodes()).containsExactly("a1", "b2");
+		assertThat(any.unknownFacilities()).containsExactly("Sauna");
+
+		assertThat(loader.unknownFacilities(List.of(" spa ", "Sauna", "INDOOR POOL", "Spaa"))).containsExactly("Sauna", "Spaa");
+		assertThat(loader.unknownFacilities(null)).isEmpty();
+	}
+
+}
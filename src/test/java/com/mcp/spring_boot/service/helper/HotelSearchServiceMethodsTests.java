@@ -0,0 +1,133 @@
+package com.mcp.spring_boot.service.helper;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HotelSearchServiceMethodsTests {
+
+	private static final String ANTALYA = """
+			{"items":[{"locations":[{"id":"101","locationType":"REGION"},{"id":"7","locationType":"CITY"}]}]}""";
+
+	private static final String INDEX = """
+			# locationId;name;aliases
+			42;Muğla;mugla|mula
+			""";
+
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+	private HttpStatus status = HttpStatus.OK;
+
+	@TempDir
+	Path dir;
+
+	private HotelSearchServiceMethods helper(String body) {
+		return helper(body, "");
+	}
+
+	private HotelSearchServiceMethods helper(String body, String learnedPath) {
+		WebClient webClient = WebClient.builder()
+				.exchangeFunction(request -> {
+					upstreamCalls.incrementAndGet();
+					return Mono.just(ClientResponse.create(status)
+									.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+									.body(body)
+									.build())
+							.delayElement(Duration.ofMillis(50));
+				})
+				.build();
+		CityLocationIndex index = new CityLocationIndex(new ByteArrayResource(INDEX.getBytes(StandardCharsets.UTF_8)),
+				learnedPath, 100, Duration.ofDays(7));
+		index.init();
+		UpstreamResilience resilience = new UpstreamResilience(CircuitBreakerRegistry.ofDefaults(),
+				BulkheadRegistry.ofDefaults(), RetryRegistry.ofDefaults(), Duration.ZERO);
+		return new HotelSearchServiceMethods(webClient, index, resilience, new SimpleMeterRegistry(),
+				Duration.ofHours(1), Duration.ofMinutes(1), 100, Duration.ofSeconds(3), 10);
+	}
+
+	@Test
+	void concurrentLookupsShareOneUpstreamCall() {
+		HotelSearchServiceMethods helper = helper(ANTALYA);
+
+		List<Integer> ids = Flux.range(0, 200)
+				.flatMap(i -> helper.getLocationIdByQuery(i % 2 == 0 ? "Antalya" : " ANTALYA "), 200)
+				.collectList()
+				.block();
+
+		assertThat(ids).hasSize(200).containsOnly(7);
+		assertThat(upstreamCalls).hasValue(1);
+	}
+
+	@Test
+	void unknownCitiesAreCachedAsMisses() {
+		HotelSearchServiceMethods helper = helper("{\"items\":[]}");
+
+		assertThat(helper.getLocationIdByQuery("Atlantis").block()).isNull();
+		assertThat(helper.getLocationIdByQuery("atlantis").block()).isNull();
+		assertThat(upstreamCalls).hasValue(1);
+	}
+
+	@Test
+	void upstreamFailuresAreErrorsNotUnknownCities() {
+		status = HttpStatus.SERVICE_UNAVAILABLE;
+		assertThatThrownBy(() -> helper(ANTALYA).getLocationIdByQuery("Antalya").block())
+				.isInstanceOf(WebClientResponseException.ServiceUnavailable.class);
+
+		status = HttpStatus.NOT_FOUND;
+		assertThat(helper(ANTALYA).getLocationIdByQuery("Antalya").block()).isNull();
+	}
+
+	@Test
+	void indexedCitiesSkipAutocomplete() {
+		HotelSearchServiceMethods helper = helper(ANTALYA);
+
+		assertThat(helper.getLocationIdByQuery("MUĞLA").block()).isEqualTo(42);
+		assertThat(helper.getLocationIdByQuery("mula").block()).isEqualTo(42);
+		assertThat(upstreamCalls).hasValue(0);
+	}
+
+	@Test
+	void resolvedCitiesAreLearnedAcrossRestarts() throws Exception {
+		Path learned = dir.resolve("learned.csv");
+		assertThat(helper(ANTALYA, learned.toString()).getLocationIdByQuery("Antalya").block()).isEqualTo(7);
+		assertThat(upstreamCalls).hasValue(1);
+
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();       // written off the caller's thread
+		while (!Files.exists(learned) && System.nanoTime() < deadline) Thread.sleep(10);
+		assertThat(learned).content().startsWith("7;antalya;").endsWith("Z\n");
+
+		HotelSearchServiceMethods restarted = helper(ANTALYA, learned.toString());
+		assertThat(restarted.getLocationIdByQuery("ANTALYA").block()).isEqualTo(7);
+		assertThat(upstreamCalls).hasValue(1);
+	}
+
+	@Test
+	void normalizationFoldsTurkishCaseAndDiacritics() {
+		assertThat(CityNames.normalize("İSTANBUL")).isEqualTo("istanbul");
+		assertThat(CityNames.normalize("Istanbul")).isEqualTo("istanbul");
+		assertThat(CityNames.normalize("  Muğla   Köyceğiz ")).isEqualTo("mugla koycegiz");
+		assertThat(CityNames.normalize("ŞANLIURFA")).isEqualTo("sanliurfa");
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.mcp.spring_boot.service.helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchPaginatorTests {
+
+	private static final int HOTELS = 37;
+	private static final Duration LATENCY = Duration.ofMillis(100);
+
+	private final List<Integer> requestedOffsets = new CopyOnWriteArrayList<>();
+
+	/** Stub of search-by-location: hotels H0..H36, one page per call after a fixed latency. */
+	private Mono<String> stub(int offset, int limit) {
+		requestedOffsets.add(offset);
+		String hotels = IntStream.range(offset, Math.min(offset + limit, HOTELS))
+				.mapToObj(i -> "{\"hotelCode\":\"H" + i + "\"}")
+				.collect(Collectors.joining(","));
+		return Mono.delay(LATENCY).thenReturn("{\"result\":{\"total\":" + HOTELS + ",\"hotels\":[" + hotels + "]}}");
+	}
+
+	private static SearchPaginator paginator(int concurrency) {
+		return new SearchPaginator(new ObjectMapper(), 5, concurrency, 10);
+	}
+
+	@Test
+	void mergesPagesInOrderHonouringOffsetAndLimit() {
+		String out = paginator(4).fetch(3, 12, code -> true, false, this::stub).block();
+
+		assertThat(out).isEqualTo("{\"result\":{\"total\":37,\"hotels\":["
+				+ IntStream.range(3, 15).mapToObj(i -> "{\"hotelCode\":\"H" + i + "\"}").collect(Collectors.joining(","))
+				+ "]}}");
+		assertThat(requestedOffsets).containsExactlyInAnyOrder(3, 8, 13);
+	}
+
+	@Test
+	void stopsAtTheLastPageOrOnceEnoughHotelsMatch() {
+		// every 4th hotel matches: H0, H4 and H8 are on the pages at 0 and 5
+		String out = paginator(1).fetch(0, 3, code -> Integer.parseInt(code.substring(1)) % 4 == 0, true, this::stub)
+				.block();
+		assertThat(out).contains("\"H0\"", "\"H4\"", "\"H8\"").doesNotContain("\"H12\"");
+		assertThat(requestedOffsets).containsExactly(0, 5);
+
+		requestedOffsets.clear();
+		paginator(1).fetch(30, 50, code -> true, false, this::stub).block();
+		assertThat(requestedOffsets).containsExactly(30, 35);
+	}
+
+	@Test
+	void filtersHotelsOutsideTheListAndKeepsTheEnvelope() {
+		String page = "{\"boards\":[{\"code\":\"AI\"}],\"result\":{\"hotels\":[{\"hotelCode\":\"H1\"},{\"hotelCode\":\"H2\"}],"
+				+ "\"featured\":[{\"hotelCode\":\"H3\"},{\"hotelCode\":\"H4\"}]},\"total\":2}";
+
+		String out = paginator(1).fetch(0, 10, code -> !code.equals("H2") && !code.equals("H4"), true,
+				(offset, limit) -> Mono.just(offset == 0 ? page : "{\"result\":{\"hotels\":[]}}")).block();
+
+		assertThat(out).isEqualTo("{\"boards\":[{\"code\":\"AI\"}],\"result\":{\"hotels\":[{\"hotelCode\":\"H1\"}],"
+				+ "\"featured\":[{\"hotelCode\":\"H3\"}]},\"total\":2}");
+	}
+
+	@Test
+	void marksTheResultPartialWhenALaterPageFails() {
+		String out = paginator(1).fetch(0, 12, code -> true, false,
+				(offset, limit) -> offset == 10 ? Mono.error(new IllegalStateException("503")) : stub(offset, limit)).block();
+
+		assertThat(out).startsWith("{\"partial\":true,\"result\":{\"total\":37,\"hotels\":[{\"hotelCode\":\"H0\"}")
+				.contains("\"H9\"").doesNotContain("\"H10\"");
+	}
+
+	@Test
+	void fansOutFasterThanSequentialPaging() {
+		long start = System.nanoTime();
+		paginator(1).fetch(0, 25, code -> true, false, this::stub).block();
+		long sequential = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		paginator(5).fetch(0, 25, code -> true, false, this::stub).block();
+		long parallel = System.nanoTime() - start;
+
+		// 5 pages x 100 ms one after another vs. all at once
+		assertThat(parallel).isLessThan(sequential / 2);
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.mcp.spring_boot.service.helper;
+
+import com.mcp.spring_boot.params.LocationHotelSearchRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchResponseCacheTests {
+
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+	private static LocationHotelSearchRequest request(int locationId) {
+		return LocationHotelSearchRequest.builder().locationId(locationId).checkIn("2025-08-01").limit(10).build();
+	}
+
+	private Mono<String> upstream(String body) {
+		return Mono.defer(() -> {
+			upstreamCalls.incrementAndGet();
+			return Mono.just(body).delayElement(Duration.ofMillis(50));
+		});
+	}
+
+	@Test
+	void concurrentLookupsShareOneUpstreamCall() {
+		SearchResponseCache cache = new SearchResponseCache(new SimpleMeterRegistry(), Duration.ofMinutes(1),
+				Duration.ofMinutes(10), DataSize.ofMegabytes(2), DataSize.ofMegabytes(1));
+
+		List<String> bodies = Flux.range(0, 200)
+				.flatMap(i -> cache.get(request(7), () -> upstream("{\"hotels\":[]}")), 200)
+				.collectList()
+				.block();
+
+		assertThat(bodies).hasSize(200).containsOnly("{\"hotels\":[]}");
+		assertThat(upstreamCalls).hasValue(1);
+	}
+
+	@Test
+	void evictsByResponseSizeWithinTheFreshShareOfTheBudget() {
+		// 2000 bytes in total, 1000 for stale copies: fresh responses get 1000 bytes, two 400-byte bodies
+		SearchResponseCache cache = new SearchResponseCache(new SimpleMeterRegistry(), Duration.ofMinutes(1),
+				Duration.ofMinutes(10), DataSize.ofBytes(2000), DataSize.ofBytes(1000));
+		String body = "x".repeat(200);
+
+		for (int id = 0; id < 5; id++) {
+			int locationId = id;
+			assertThat(cache.get(request(locationId), () -> upstream(body)).block()).isEqualTo(body);
+		}
+		assertThat(cache.weightedBytes()).isLessThanOrEqualTo(1000);
+
+		for (int id = 0; id < 5; id++) {
+			int locationId = id;
+			cache.get(request(locationId), () -> upstream(body)).block();
+		}
+		assertThat(upstreamCalls.get()).isGreaterThanOrEqualTo(8);   // at most two of the five stayed cached
+	}
+
+	@Test
+	void rejectsAStaleShareThatLeavesNothingForFreshResponses() {
+		assertThatThrownBy(() -> new SearchResponseCache(new SimpleMeterRegistry(), Duration.ofMinutes(1),
+				Duration.ofMinutes(10), DataSize.ofMegabytes(8), DataSize.ofMegabytes(8)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("stale-max-size");
+	}
+
+}
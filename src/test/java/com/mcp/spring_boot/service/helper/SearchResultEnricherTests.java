@@ -0,0 +1,50 @@
+package com.mcp.spring_boot.service.helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.ignoreStubs;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class SearchResultEnricherTests {
+
+	private static final String RESPONSE = """
+			{"result":{"total":3,"hotels":[
+			  {"hotelCode":"A1","name":"Alpha","rooms":[{"code":"DBL"}]},
+			  {"hotelCode":"B2","name":"Beta"},
+			  {"hotelCode":"Z9","name":"Unknown"}
+			]},"boards":[{"code":"AI"}]}""";
+
+	private final HotelFacilityDataLoader loader = mock(HotelFacilityDataLoader.class);
+	private final SearchResultEnricher enricher = new SearchResultEnricher(new ObjectMapper(), loader);
+
+	@Test
+	void embedsFacilityNamesOfEveryHotel() {
+		when(loader.getFacilityNamesForHotel("A1")).thenReturn(List.of("Spa", "Indoor Pool"));
+		when(loader.getFacilityNamesForHotel("B2")).thenReturn(List.of("Spa"));
+		when(loader.getFacilityNamesForHotel("Z9")).thenReturn(List.of());
+
+		String out = enricher.apply(RESPONSE, true);
+
+		assertThat(out).isEqualTo("""
+				{"result":{"total":3,"hotels":[\
+				{"hotelCode":"A1","name":"Alpha","rooms":[{"code":"DBL"}],"facilities":["Spa","Indoor Pool"]},\
+				{"hotelCode":"B2","name":"Beta","facilities":["Spa"]},\
+				{"hotelCode":"Z9","name":"Unknown","facilities":[]}\
+				]},"boards":[{"code":"AI"}]}""");
+		verifyNoMoreInteractions(ignoreStubs(loader));
+	}
+
+	@Test
+	void leavesResponseUntouchedWithoutOptionsOrWhenNotJson() {
+		assertThat(enricher.apply(RESPONSE, false)).isSameAs(RESPONSE);
+		assertThat(enricher.apply("500 Internal Server Error", true))
+				.isEqualTo("500 Internal Server Error");
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.mcp.spring_boot.service.helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.spring_boot.service.helper.SearchResultMerger.CityResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultMergerTests {
+
+	private final SearchResultMerger merger = new SearchResultMerger(new ObjectMapper());
+
+	@Test
+	void keepsOnlyHotelListsInCallerOrderAndIsolatesFailures() {
+		String out = merger.merge(List.of(
+				CityResult.of("Bodrum", "2025-08-01", "2025-08-05",
+						"{\"result\":{\"total\":2,\"hotels\":[{\"hotelCode\":\"A1\"},{\"hotelCode\":\"B2\"}]},\"boards\":[]}"),
+				CityResult.failed("Fethiye", "2025-08-01", "2025-08-05", "Hotel search failed: the hotel API answered 503."),
+				CityResult.of("Marmaris", "2025-08-01", "2025-08-05", "{\"result\":{\"hotels\":[]}}")));
+
+		assertThat(out).isEqualTo("""
+				{"results":[\
+				{"city":"Bodrum","checkIn":"2025-08-01","checkOut":"2025-08-05","hotels":[{"hotelCode":"A1"},{"hotelCode":"B2"}]},\
+				{"city":"Fethiye","checkIn":"2025-08-01","checkOut":"2025-08-05","error":"Hotel search failed: the hotel API answered 503."},\
+				{"city":"Marmaris","checkIn":"2025-08-01","checkOut":"2025-08-05","hotels":[]}\
+				],"failed":1}""");
+	}
+
+	@Test
+	void marksCitiesWithMissingPagesAsPartial() {
+		assertThat(merger.merge(List.of(CityResult.of("Kas", null, null,
+				"{\"hotels\":[{\"hotelCode\":\"A1\"}],\"count\":1,\"partial\":true}"))))
+				.contains("\"hotels\":[{\"hotelCode\":\"A1\"}],\"partial\":true}");
+	}
+
+	@Test
+	void alwaysListsHotelsAndKeepsOtherResponsesAlongside() {
+		assertThat(merger.merge(List.of(CityResult.of("Izmir", null, null, "upstream says no"))))
+				.contains("\"hotels\":[],\"response\":\"upstream says no\"", "\"failed\":0");
+		assertThat(merger.merge(List.of(CityResult.of("Kas", null, null, "{\"hotels\":[],\"count\":0}"))))
+				.contains("\"hotels\":[]}").doesNotContain("response");
+		assertThat(merger.merge(List.of(CityResult.of("Kas", null, null, "{\"warning\":\"no availability\"}"))))
+				.contains("\"hotels\":[],\"response\":{\"warning\":\"no availability\"}");
+	}
+
+}
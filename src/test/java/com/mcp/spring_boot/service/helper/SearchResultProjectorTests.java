@@ -0,0 +1,75 @@
+package com.mcp.spring_boot.service.helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultProjectorTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final SearchResultProjector projector = new SearchResultProjector(new ObjectMapper(), registry,
+			List.of("hotelCode", "hotelName", "facilities"), List.of("totalPrice", "amount"), List.of("boardType", "board"));
+
+	@Test
+	void keepsConfiguredFieldsAndTheCheapestOfferWithItsBoard() {
+		String body = """
+				{"status":"OK","boards":[{"code":"AI"}],"result":{"total":2,"hotels":[
+				  {"hotelCode":"A1","hotelName":"Sea View","description":"long text","facilities":["Spa"],
+				   "rooms":[{"board":{"code":"AI","name":"All Inclusive"},"price":{"amount":412.5,"currency":"EUR"}},
+				            {"board":{"code":"BB","name":"Bed & Breakfast"},"price":{"amount":250,"currency":"EUR"}}]},
+				  {"hotelCode":"B2","hotelName":"Old Town","currency":"TRY","offers":[{"boardType":"RO","totalPrice":1800}]}
+				]}}""";
+
+		assertThat(projector.apply(body)).isEqualTo("""
+				{"hotels":[\
+				{"hotelCode":"A1","hotelName":"Sea View","facilities":["Spa"],"cheapestPrice":250,"currency":"EUR","board":"Bed & Breakfast"},\
+				{"hotelCode":"B2","hotelName":"Old Town","cheapestPrice":1800,"currency":"TRY","board":"RO"}\
+				],"count":2}""");
+	}
+
+	@Test
+	void projectsATopLevelHotelArrayAndAnEmptyHotelList() {
+		assertThat(projector.apply("[{\"hotelCode\":\"A1\",\"rooms\":[]}]"))
+				.isEqualTo("{\"hotels\":[{\"hotelCode\":\"A1\"}],\"count\":1}");
+		assertThat(projector.apply("{\"result\":{\"hotels\":[]}}"))
+				.isEqualTo("{\"hotels\":[],\"count\":0}");
+		assertThat(projector.apply("{\"results\":[{\"city\":\"Kas\",\"hotels\":[]}]}"))
+				.isEqualTo("{\"hotels\":[],\"count\":0}");
+	}
+
+	@Test
+	void carriesThePartialFlagOver() {
+		assertThat(projector.apply("{\"partial\":true,\"result\":{\"partial\":false,\"hotels\":[{\"hotelCode\":\"A1\"}]}}"))
+				.isEqualTo("{\"hotels\":[{\"hotelCode\":\"A1\"}],\"count\":1,\"partial\":true}");
+		assertThat(projector.apply("{\"result\":{\"partial\":true,\"hotels\":[{\"hotelCode\":\"A1\"}]}}"))
+				.isEqualTo("{\"hotels\":[{\"hotelCode\":\"A1\"}],\"count\":1}");
+	}
+
+	@Test
+	void leavesBodiesWithoutHotelsUnchanged() {
+		assertThat(projector.apply("upstream says no")).isEqualTo("upstream says no");
+		assertThat(projector.apply("{\"error\":\"bad dates\",\"details\":[{\"field\":\"checkIn\"}]}"))
+				.isEqualTo("{\"error\":\"bad dates\",\"details\":[{\"field\":\"checkIn\"}]}");
+		assertThat(projector.apply("{\"result\":{\"hotels\":[{\"hotelCode\":\"A1\"}]")).startsWith("{\"result\"");
+	}
+
+	@Test
+	void recordsBytesInAndOut() {
+		String body = "{\"hotels\":[{\"hotelCode\":\"Ä1\",\"description\":\"" + "x".repeat(1000) + "\"}]}";
+		String projected = projector.apply(body);
+
+		DistributionSummary in = registry.get(SearchResultProjector.BYTES_SUMMARY).tag("direction", "in").summary();
+		DistributionSummary out = registry.get(SearchResultProjector.BYTES_SUMMARY).tag("direction", "out").summary();
+		assertThat(in.totalAmount()).isEqualTo(body.getBytes(StandardCharsets.UTF_8).length);
+		assertThat(out.totalAmount()).isEqualTo(projected.getBytes(StandardCharsets.UTF_8).length);
+		assertThat(out.totalAmount()).isLessThan(in.totalAmount() / 10);
+	}
+
+}
@@ -0,0 +1,222 @@
+package com.mcp.spring_boot.service.helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.mcp.spring_boot.params.LocationHotelSearchRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamResilienceTests {
+
+	/** Scripted answer of the stub: status and latency per call, the last one repeats. */
+	private record Step(int status, long delayMs) {}
+
+	private final AtomicInteger calls = new AtomicInteger();
+	private final List<Step> script = new CopyOnWriteArrayList<>();
+	private final ConnectionProvider connections = ConnectionProvider.create("upstream-stub", 500);
+	private DisposableServer server;
+	private volatile String body;                                    // answered instead of "call-n" when set
+
+	private WebClient stub(Step... steps) {
+		script.addAll(List.of(steps));
+		server = HttpServer.create().port(0).handle((req, res) -> {
+			int n = calls.getAndIncrement();
+			Step step = script.get(Math.min(n, script.size() - 1));
+			return Mono.delay(Duration.ofMillis(step.delayMs()))
+					.then(res.status(step.status()).sendString(Mono.just(body != null ? body : "call-" + n)).then());
+		}).bindNow();
+		return WebClient.builder()
+				.baseUrl("http://localhost:" + server.port())
+				.clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+				.build();
+	}
+
+	@AfterEach
+	void stop() {
+		if (server != null) server.disposeNow();
+		connections.dispose();
+	}
+
+	private static UpstreamResilience resilience(Duration hedgeDelay) {
+		return resilience(hedgeDelay, BulkheadConfig.DEFAULT_MAX_CONCURRENT_CALLS);
+	}
+
+	private static UpstreamResilience resilience(Duration hedgeDelay, int maxConcurrentCalls) {
+		return resilience(hedgeDelay, BulkheadConfig.custom()
+				.maxConcurrentCalls(maxConcurrentCalls).maxWaitDuration(Duration.ZERO)
+				.build());
+	}
+
+	private static UpstreamResilience resilience(Duration hedgeDelay, BulkheadConfig bulkhead) {
+		CircuitBreakerRegistry breakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+				.slidingWindowSize(4).minimumNumberOfCalls(4).failureRateThreshold(50)
+				.waitDurationInOpenState(Duration.ofMinutes(1))
+				.build());
+		RetryRegistry retries = RetryRegistry.of(RetryConfig.custom()
+				.maxAttempts(3).waitDuration(Duration.ofMillis(10))
+				.retryOnException(UpstreamResilience::isTransient)
+				.build());
+		return new UpstreamResilience(breakers, BulkheadRegistry.of(bulkhead), retries, hedgeDelay);
+	}
+
+	private static Mono<String> get(WebClient client) {
+		return client.get().uri("/").retrieve().bodyToMono(String.class);
+	}
+
+	@Test
+	void autocompleteRetriesServerErrorsButNotClientErrors() {
+		WebClient client = stub(new Step(503, 0), new Step(502, 0), new Step(200, 0));
+		assertThat(resilience(Duration.ZERO).autocomplete(() -> get(client)).block()).isEqualTo("call-2");
+
+		calls.set(0);
+		script.clear();
+		script.add(new Step(404, 0));
+		assertThatThrownBy(() -> resilience(Duration.ZERO).autocomplete(() -> get(client)).block())
+				.isInstanceOf(WebClientResponseException.NotFound.class);
+		assertThat(calls).hasValue(1);
+	}
+
+	@Test
+	void openBreakerRejectsWithoutCallingUpstream() {
+		WebClient client = stub(new Step(500, 0));
+		UpstreamResilience resilience = resilience(Duration.ZERO);
+		for (int i = 0; i < 4; i++) {
+			assertThatThrownBy(() -> resilience.search(() -> get(client)).block())
+					.isInstanceOf(WebClientResponseException.InternalServerError.class);
+		}
+
+		assertThatThrownBy(() -> resilience.search(() -> get(client)).block())
+				.isInstanceOf(CallNotPermittedException.class);
+		assertThat(calls).hasValue(4);
+	}
+
+	@Test
+	void bulkheadRejectionsDoNotOpenTheBreaker() {
+		WebClient client = stub(new Step(200, 300));
+		UpstreamResilience resilience = resilience(Duration.ZERO, 1);
+		Mono<String> inFlight = resilience.search(() -> get(client)).cache();
+		inFlight.subscribe();                                        // holds the only permit
+
+		for (int i = 0; i < 4; i++) {
+			assertThatThrownBy(() -> resilience.search(() -> get(client)).block())
+					.isInstanceOf(BulkheadFullException.class);
+		}
+
+		assertThat(inFlight.block()).isEqualTo("call-0");
+		assertThat(resilience.search(() -> get(client)).block()).isEqualTo("call-1");
+	}
+
+	@Test
+	void hedgedRequestCutsTailLatency() {
+		WebClient client = stub(new Step(200, 1500), new Step(200, 0));
+
+		long start = System.nanoTime();
+		String body = resilience(Duration.ofMillis(100)).search(() -> get(client)).block();
+
+		assertThat(body).isEqualTo("call-1");
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1000));
+		assertThat(calls).hasValue(2);
+	}
+
+	@Test
+	void failingHedgeDoesNotCancelAHealthyPrimary() {
+		WebClient client = stub(new Step(200, 400), new Step(500, 0));
+
+		String body = resilience(Duration.ofMillis(50)).search(() -> get(client)).block();
+
+		assertThat(body).isEqualTo("call-0");
+		assertThat(calls).hasValue(2);
+	}
+
+	@Test
+	void reportsThePrimaryErrorWhenTheHedgeFailsToo() {
+		WebClient client = stub(new Step(500, 200), new Step(503, 0));
+
+		assertThatThrownBy(() -> resilience(Duration.ofMillis(50)).search(() -> get(client)).block())
+				.isInstanceOf(WebClientResponseException.InternalServerError.class);
+		assertThat(calls).hasValue(2);
+	}
+
+	@Test
+	void hedgeNeedsABulkheadPermitOfItsOwn() {
+		WebClient client = stub(new Step(200, 300));
+
+		String body = resilience(Duration.ofMillis(50), 1).search(() -> get(client)).block();
+
+		assertThat(body).isEqualTo("call-0");
+		assertThat(calls).hasValue(1);                               // the hedge was shed, the primary went on
+	}
+
+	@Test
+	void searchBulkheadCarriesFortySessionsOfPagedSearches() throws Exception {
+		Properties props = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+		int pageSize = Integer.parseInt(props.getProperty("api.search-pagination.page-size"));
+		int pagesInFlight = Integer.parseInt(props.getProperty("api.search-pagination.concurrency"));
+		UpstreamResilience resilience = resilience(Duration.ZERO, BulkheadConfig.custom()
+				.maxConcurrentCalls(Integer.parseInt(props.getProperty("resilience4j.bulkhead.instances.search.max-concurrent-calls")))
+				.maxWaitDuration(DurationStyle.detectAndParse(props.getProperty("resilience4j.bulkhead.instances.search.max-wait-duration")))
+				.build());
+		SearchPaginator paginator = new SearchPaginator(new ObjectMapper(), pageSize, pagesInFlight, 10);
+		body = IntStream.range(0, pageSize).mapToObj(i -> "{\"hotelCode\":\"H" + i + "\"}")
+				.collect(Collectors.joining(",", "{\"hotels\":[", "]}"));
+		WebClient client = stub(new Step(200, 200));
+		int sessions = 40;
+
+		List<String> results = Flux.range(0, sessions)
+				.flatMap(session -> paginator.fetch(0, pageSize * pagesInFlight, code -> true, false,
+								(offset, limit) -> resilience.search(() -> get(client)))
+						.onErrorResume(e -> Mono.just("failed: " + e)), sessions)
+				.collectList()
+				.block();
+
+		assertThat(results).hasSize(sessions).allSatisfy(result ->
+				assertThat(result).doesNotContain("failed", SearchPaginator.PARTIAL_FIELD));
+		assertThat(calls).hasValue(sessions * pagesInFlight);
+	}
+
+	@Test
+	void searchCacheServesLastGoodResponseWhenUpstreamFails() {
+		WebClient client = stub(new Step(200, 0), new Step(500, 0));
+		SearchResponseCache cache = new SearchResponseCache(new SimpleMeterRegistry(),
+				Duration.ofMillis(1), Duration.ofMinutes(10), DataSize.ofMegabytes(2), DataSize.ofMegabytes(1));
+		LocationHotelSearchRequest request = LocationHotelSearchRequest.builder().locationId(7).build();
+
+		assertThat(cache.get(request, () -> get(client)).block()).isEqualTo("call-0");
+		Mono.delay(Duration.ofMillis(20)).block();                  // fresh entry expired
+		assertThat(cache.get(request, () -> get(client)).block()).isEqualTo("call-0");
+		assertThat(calls).hasValue(2);
+	}
+
+}